@@ -1,7 +1,14 @@
 package com.tecforte.blog.config;
 
+import com.tecforte.blog.domain.enumeration.Emoji;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Properties specific to Blog.
  * <p>
@@ -10,4 +17,261 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final EntryRules entryRules = new EntryRules();
+
+    private final Cleanup cleanup = new Cleanup();
+
+    private final EntryIndex entryIndex = new EntryIndex();
+
+    private final CompactToken compactToken = new CompactToken();
+
+    private final AuditEvents auditEvents = new AuditEvents();
+
+    public EntryRules getEntryRules() {
+        return entryRules;
+    }
+
+    public Cleanup getCleanup() {
+        return cleanup;
+    }
+
+    public EntryIndex getEntryIndex() {
+        return entryIndex;
+    }
+
+    public CompactToken getCompactToken() {
+        return compactToken;
+    }
+
+    public AuditEvents getAuditEvents() {
+        return auditEvents;
+    }
+
+    /**
+     * Settings of the audit events: the writer, which writes them in batches from a bounded queue, and the retention purge.
+     */
+    public static class AuditEvents {
+
+        private boolean async = true;
+
+        private int queueCapacity = 10000;
+
+        private int batchSize = 50;
+
+        private long flushIntervalMillis = 1000;
+
+        private long offerTimeoutMillis = 10;
+
+        private int purgeChunkSize = 1000;
+
+        /**
+         * @return whether the events are written in the background, rather than before authentication completes.
+         */
+        public boolean isAsync() {
+            return async;
+        }
+
+        public void setAsync(boolean async) {
+            this.async = async;
+        }
+
+        /**
+         * @return the number of events waiting to be written above which new events are dropped.
+         */
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        /**
+         * @return the number of events written per transaction, at most.
+         */
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * @return the time an event can wait for more events to fill its batch, in milliseconds.
+         */
+        public long getFlushIntervalMillis() {
+            return flushIntervalMillis;
+        }
+
+        public void setFlushIntervalMillis(long flushIntervalMillis) {
+            this.flushIntervalMillis = flushIntervalMillis;
+        }
+
+        /**
+         * @return the time a caller waits for room in a full queue before its event is dropped, in milliseconds.
+         */
+        public long getOfferTimeoutMillis() {
+            return offerTimeoutMillis;
+        }
+
+        public void setOfferTimeoutMillis(long offerTimeoutMillis) {
+            this.offerTimeoutMillis = offerTimeoutMillis;
+        }
+
+        /**
+         * @return the number of expired events deleted per transaction by the retention purge.
+         */
+        public int getPurgeChunkSize() {
+            return purgeChunkSize;
+        }
+
+        public void setPurgeChunkSize(int purgeChunkSize) {
+            this.purgeChunkSize = purgeChunkSize;
+        }
+    }
+
+    /**
+     * Settings of the compact tokens, issued instead of JWTs when enabled, and accepted next to them.
+     */
+    public static class CompactToken {
+
+        private boolean enabled = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * Settings of the keyword cleanups, which scan the entries in parallel, one id range per task.
+     */
+    public static class Cleanup {
+
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        private int partitionsPerThread = 4;
+
+        private int jobThreads = 2;
+
+        private int jobQueueCapacity = 10;
+
+        /**
+         * @return the number of threads scanning the entries, shared by all the running cleanups.
+         */
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        /**
+         * @return the number of id ranges per thread, more ranges balancing the load better when ids are unevenly spread.
+         */
+        public int getPartitionsPerThread() {
+            return partitionsPerThread;
+        }
+
+        public void setPartitionsPerThread(int partitionsPerThread) {
+            this.partitionsPerThread = partitionsPerThread;
+        }
+
+        /**
+         * @return the number of cleanup jobs running at the same time, each of them sharing the scanning threads.
+         */
+        public int getJobThreads() {
+            return jobThreads;
+        }
+
+        public void setJobThreads(int jobThreads) {
+            this.jobThreads = jobThreads;
+        }
+
+        /**
+         * @return the number of cleanup jobs waiting for a thread, beyond which new jobs are refused.
+         */
+        public int getJobQueueCapacity() {
+            return jobQueueCapacity;
+        }
+
+        public void setJobQueueCapacity(int jobQueueCapacity) {
+            this.jobQueueCapacity = jobQueueCapacity;
+        }
+    }
+
+    /**
+     * Settings of the in-memory entry index.
+     */
+    public static class EntryIndex {
+
+        private boolean trusted = false;
+
+        /**
+         * @return whether the cleanups and the word lookups may only read the entries that the index finds, instead of
+         * scanning the database. Only safe when this instance is the only one writing entries, all through
+         * {@code EntryService}: the index misses any other write.
+         */
+        public boolean isTrusted() {
+            return trusted;
+        }
+
+        public void setTrusted(boolean trusted) {
+            this.trusted = trusted;
+        }
+    }
+
+    /**
+     * Content rules applied to the entries of a blog, depending on the blog polarity.
+     */
+    public static class EntryRules {
+
+        private final Polarity positiveBlog = new Polarity(
+            EnumSet.of(Emoji.SAD, Emoji.ANGRY), Arrays.asList("sad", "fear", "lonely"));
+
+        private final Polarity negativeBlog = new Polarity(
+            EnumSet.of(Emoji.LIKE, Emoji.HAHA), Arrays.asList("love", "happy", "trust"));
+
+        public Polarity getPositiveBlog() {
+            return positiveBlog;
+        }
+
+        public Polarity getNegativeBlog() {
+            return negativeBlog;
+        }
+
+        public static class Polarity {
+
+            private Set<Emoji> forbiddenEmojis;
+
+            private List<String> forbiddenWords;
+
+            Polarity(Set<Emoji> forbiddenEmojis, List<String> forbiddenWords) {
+                this.forbiddenEmojis = forbiddenEmojis;
+                this.forbiddenWords = new ArrayList<>(forbiddenWords);
+            }
+
+            public Set<Emoji> getForbiddenEmojis() {
+                return forbiddenEmojis;
+            }
+
+            public void setForbiddenEmojis(Set<Emoji> forbiddenEmojis) {
+                this.forbiddenEmojis = forbiddenEmojis;
+            }
+
+            public List<String> getForbiddenWords() {
+                return forbiddenWords;
+            }
+
+            public void setForbiddenWords(List<String> forbiddenWords) {
+                this.forbiddenWords = forbiddenWords;
+            }
+        }
+    }
 }
@@ -24,8 +24,11 @@ public class AsyncConfiguration implements AsyncConfigurer {
 
     private final TaskExecutionProperties taskExecutionProperties;
 
-    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties, ApplicationProperties applicationProperties) {
         this.taskExecutionProperties = taskExecutionProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Override
@@ -40,6 +43,22 @@ public class AsyncConfiguration implements AsyncConfigurer {
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
+    /**
+     * Executor of the blog cleanup jobs, kept apart from the {@code taskExecutor} so that long cleanups cannot starve
+     * the other asynchronous tasks, and bounded so that the jobs in excess are refused instead of piling up.
+     */
+    @Bean(name = "cleanupJobExecutor")
+    public Executor cleanupJobExecutor() {
+        log.debug("Creating Cleanup Job Executor");
+        ApplicationProperties.Cleanup cleanup = applicationProperties.getCleanup();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cleanup.getJobThreads());
+        executor.setMaxPoolSize(cleanup.getJobThreads());
+        executor.setQueueCapacity(cleanup.getJobQueueCapacity());
+        executor.setThreadNamePrefix("cleanup-job-");
+        return executor;
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
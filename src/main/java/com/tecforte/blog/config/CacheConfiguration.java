@@ -6,6 +6,7 @@ import org.ehcache.config.builders.*;
 import org.ehcache.jsr107.Eh107Configuration;
 
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
 import io.github.jhipster.config.JHipsterProperties;
 
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
@@ -17,16 +18,35 @@ import org.springframework.context.annotation.*;
 @EnableCaching
 public class CacheConfiguration {
 
+    /**
+     * Time to live of the cached results of {@link com.tecforte.blog.repository.BlogRepository#findByUserIsCurrentUser()}.
+     */
+    private static final Duration BLOGS_BY_USER_TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    /**
+     * Time to live of the cached pages of entries of a blog, shorter as any entry change invalidates them anyway.
+     */
+    private static final Duration ENTRIES_BY_BLOG_TIME_TO_LIVE = Duration.ofMinutes(1);
+
+    /**
+     * Time to live of the cached results of {@link com.tecforte.blog.repository.UserRepository#findOneByLogin(String)}.
+     */
+    private static final Duration USER_BY_LOGIN_TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    /**
+     * Number of tables whose last update time is tracked, must exceed the number of cached tables.
+     */
+    private static final long UPDATE_TIMESTAMPS_MAX_ENTRIES = 1000;
+
     private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
 
+    private final long maxEntries;
+
     public CacheConfiguration(JHipsterProperties jHipsterProperties) {
         JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
 
-        jcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
-            CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
-                ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                .build());
+        maxEntries = ehcache.getMaxEntries();
+        jcacheConfiguration = timeToLiveConfiguration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds()));
     }
 
     @Bean
@@ -46,15 +66,45 @@ public class CacheConfiguration {
             createCache(cm, com.tecforte.blog.domain.Entry.class.getName());
             createCache(cm, com.tecforte.blog.domain.Entry.class.getName() + ".tags");
             createCache(cm, com.tecforte.blog.domain.Blog.class.getName() + ".entries");
+            createCache(cm, com.tecforte.blog.repository.BlogRepository.BLOG_METADATA_CACHE);
+            // Query result regions, invalidated by Hibernate whenever one of their tables is written to,
+            // with statistics enabled for their hit and miss metrics
+            createQueryCache(cm, com.tecforte.blog.repository.BlogRepository.BLOGS_BY_USER_QUERY_CACHE, BLOGS_BY_USER_TIME_TO_LIVE);
+            createQueryCache(cm, com.tecforte.blog.repository.EntryRepository.ENTRIES_BY_BLOG_QUERY_CACHE, ENTRIES_BY_BLOG_TIME_TO_LIVE);
+            createQueryCache(cm, com.tecforte.blog.repository.UserRepository.USER_BY_LOGIN_QUERY_CACHE, USER_BY_LOGIN_TIME_TO_LIVE);
+            createCache(cm, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+            // The last update time of each table must outlive the query results it validates
+            createCache(cm, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                    ResourcePoolsBuilder.heap(UPDATE_TIMESTAMPS_MAX_ENTRIES))
+                    .withExpiry(ExpiryPolicyBuilder.noExpiration())
+                    .build()));
             // jhipster-needle-ehcache-add-entry
         };
     }
 
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        createCache(cm, cacheName, jcacheConfiguration);
+    }
+
+    private void createQueryCache(javax.cache.CacheManager cm, String cacheName, Duration timeToLive) {
+        createCache(cm, cacheName, timeToLiveConfiguration(timeToLive));
+        cm.enableStatistics(cacheName, true);
+    }
+
+    private void createCache(javax.cache.CacheManager cm, String cacheName, javax.cache.configuration.Configuration<Object, Object> configuration) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cm.destroyCache(cacheName);
         }
-        cm.createCache(cacheName, jcacheConfiguration);
+        cm.createCache(cacheName, configuration);
+    }
+
+    private javax.cache.configuration.Configuration<Object, Object> timeToLiveConfiguration(Duration timeToLive) {
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                ResourcePoolsBuilder.heap(maxEntries))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive))
+                .build());
     }
 }
@@ -28,11 +28,15 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 
     private final TokenProvider tokenProvider;
 
+    private final CompactTokenProvider compactTokenProvider;
+
     private final CorsFilter corsFilter;
     private final SecurityProblemSupport problemSupport;
 
-    public SecurityConfiguration(TokenProvider tokenProvider, CorsFilter corsFilter, SecurityProblemSupport problemSupport) {
+    public SecurityConfiguration(TokenProvider tokenProvider, CompactTokenProvider compactTokenProvider, CorsFilter corsFilter,
+                                 SecurityProblemSupport problemSupport) {
         this.tokenProvider = tokenProvider;
+        this.compactTokenProvider = compactTokenProvider;
         this.corsFilter = corsFilter;
         this.problemSupport = problemSupport;
     }
@@ -97,6 +101,6 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
     }
 
     private JWTConfigurer securityConfigurerAdapter() {
-        return new JWTConfigurer(tokenProvider);
+        return new JWTConfigurer(tokenProvider, compactTokenProvider);
     }
 }
@@ -0,0 +1,180 @@
+package com.tecforte.blog.config.audit;
+
+import com.tecforte.blog.config.ApplicationProperties;
+import com.tecforte.blog.domain.PersistentAuditEvent;
+import com.tecforte.blog.repository.PersistenceAuditEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the audit events in the background, in batches, so that authenticating does not wait for them.
+ * <p>
+ * The events are queued, up to {@code application.audit-events.queue-capacity}. A single thread writes them, in one
+ * transaction per batch of {@code batch-size} events, or of the events queued in {@code flush-interval-millis}. When
+ * the queue is full, callers wait up to {@code offer-timeout-millis} for room, then the event is dropped and counted
+ * in the {@code audit.events.dropped} metric. The events still queued are written on shutdown.
+ * <p>
+ * With {@code application.audit-events.async} set to {@code false}, each event is written right away instead, in a
+ * transaction of its own.
+ */
+@Component
+public class AuditEventWriter {
+
+    private final Logger log = LoggerFactory.getLogger(AuditEventWriter.class);
+
+    private final PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate newTransactionTemplate;
+
+    private final ApplicationProperties.AuditEvents properties;
+
+    private final BlockingQueue<PersistentAuditEvent> queue;
+
+    private final Counter dropped;
+
+    private final Counter failed;
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    public AuditEventWriter(PersistenceAuditEventRepository persistenceAuditEventRepository,
+                            PlatformTransactionManager transactionManager,
+                            ApplicationProperties applicationProperties,
+                            MeterRegistry meterRegistry) {
+        this.persistenceAuditEventRepository = persistenceAuditEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = applicationProperties.getAuditEvents();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.dropped = Counter.builder("audit.events.dropped")
+            .description("Audit events dropped because the write queue was full")
+            .register(meterRegistry);
+        this.failed = Counter.builder("audit.events.failed")
+            .description("Audit events lost because their batch could not be written")
+            .register(meterRegistry);
+        Gauge.builder("audit.events.queued", queue, BlockingQueue::size)
+            .description("Audit events waiting to be written")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isAsync()) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::run, "audit-event-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stop the background thread, then write the events still queued.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(properties.getFlushIntervalMillis() + 5000);
+        }
+        flush();
+    }
+
+    /**
+     * Queue an event to be written, waiting for room if the queue is full.
+     *
+     * @param event the event to write.
+     * @return {@code false} if the event was dropped, the queue staying full.
+     */
+    public boolean write(PersistentAuditEvent event) {
+        if (!properties.isAsync()) {
+            newTransactionTemplate.execute(status -> persistenceAuditEventRepository.save(event));
+            return true;
+        }
+        try {
+            if (queue.offer(event, properties.getOfferTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dropped.increment();
+        log.debug("Audit event queue full, dropped {} event of {}", event.getAuditEventType(), event.getPrincipal());
+        return false;
+    }
+
+    /**
+     * Write all the queued events now, within the current transaction if any.
+     */
+    public void flush() {
+        List<PersistentAuditEvent> batch = new ArrayList<>(properties.getBatchSize());
+        while (queue.drainTo(batch, properties.getBatchSize()) > 0) {
+            save(batch);
+            batch.clear();
+        }
+    }
+
+    private void run() {
+        List<PersistentAuditEvent> batch = new ArrayList<>(properties.getBatchSize());
+        while (running) {
+            try {
+                PersistentAuditEvent first = queue.poll(properties.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMillis());
+                while (batch.size() < properties.getBatchSize()) {
+                    queue.drainTo(batch, properties.getBatchSize() - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= properties.getBatchSize() || remaining <= 0) {
+                        break;
+                    }
+                    PersistentAuditEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                save(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void save(List<PersistentAuditEvent> batch) {
+        // A copy, as the batch is reused for the next events once saved
+        List<PersistentAuditEvent> events = new ArrayList<>(batch);
+        try {
+            transactionTemplate.execute(status -> persistenceAuditEventRepository.saveAll(events));
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            log.error("Could not write {} audit events", batch.size(), e);
+        }
+    }
+}
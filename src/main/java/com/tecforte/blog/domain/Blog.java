@@ -2,6 +2,9 @@ package com.tecforte.blog.domain;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import javax.validation.constraints.*;
@@ -21,8 +24,9 @@ public class Blog extends AbstractAuditingEntity implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "blogSequenceGenerator")
+    @GenericGenerator(name = "blogSequenceGenerator", strategy = PooledSequenceGenerator.NAME,
+        parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "blog_seq"))
     private Long id;
 
     @NotNull
@@ -0,0 +1,148 @@
+package com.tecforte.blog.domain;
+
+import com.tecforte.blog.domain.enumeration.Emoji;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * The number of entries of a blog with a given emoji, kept up to date as the entries are saved and deleted.
+ */
+@Entity
+@Table(name = "blog_emoji_stats")
+@IdClass(BlogEmojiStats.Key.class)
+public class BlogEmojiStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "blog_id")
+    private Long blogId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "emoji")
+    private Emoji emoji;
+
+    @NotNull
+    @Column(name = "entry_count", nullable = false)
+    private Long entryCount;
+
+    public BlogEmojiStats() {
+    }
+
+    public BlogEmojiStats(Long blogId, Emoji emoji, Long entryCount) {
+        this.blogId = blogId;
+        this.emoji = emoji;
+        this.entryCount = entryCount;
+    }
+
+    public Long getBlogId() {
+        return blogId;
+    }
+
+    public void setBlogId(Long blogId) {
+        this.blogId = blogId;
+    }
+
+    public Emoji getEmoji() {
+        return emoji;
+    }
+
+    public void setEmoji(Emoji emoji) {
+        this.emoji = emoji;
+    }
+
+    public Long getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(Long entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BlogEmojiStats)) {
+            return false;
+        }
+        BlogEmojiStats other = (BlogEmojiStats) o;
+        return blogId != null && blogId.equals(other.blogId) && emoji == other.emoji;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    @Override
+    public String toString() {
+        return "BlogEmojiStats{" +
+            "blogId=" + getBlogId() +
+            ", emoji='" + getEmoji() + "'" +
+            ", entryCount=" + getEntryCount() +
+            "}";
+    }
+
+    /**
+     * The identifier of a {@link BlogEmojiStats}, ordered by blog then emoji.
+     */
+    public static class Key implements Serializable, Comparable<Key> {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long blogId;
+
+        private Emoji emoji;
+
+        public Key() {
+        }
+
+        public Key(Long blogId, Emoji emoji) {
+            this.blogId = blogId;
+            this.emoji = emoji;
+        }
+
+        public Long getBlogId() {
+            return blogId;
+        }
+
+        public Emoji getEmoji() {
+            return emoji;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byBlog = blogId.compareTo(other.blogId);
+            return byBlog != 0 ? byBlog : emoji.compareTo(other.emoji);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(blogId, other.blogId) && emoji == other.emoji;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(blogId, emoji);
+        }
+
+        @Override
+        public String toString() {
+            return "Key{blogId=" + blogId + ", emoji=" + emoji + "}";
+        }
+    }
+}
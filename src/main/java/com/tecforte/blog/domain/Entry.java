@@ -2,7 +2,10 @@ package com.tecforte.blog.domain;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.Type;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import javax.validation.constraints.*;
@@ -22,8 +25,9 @@ public class Entry extends AbstractAuditingEntity implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "entrySequenceGenerator")
+    @GenericGenerator(name = "entrySequenceGenerator", strategy = PooledSequenceGenerator.NAME,
+        parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "entry_seq"))
     private Long id;
 
     @NotNull
@@ -1,5 +1,9 @@
 package com.tecforte.blog.domain;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 import java.io.Serializable;
@@ -19,8 +23,9 @@ public class PersistentAuditEvent implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "persistentAuditEventSequenceGenerator")
+    @GenericGenerator(name = "persistentAuditEventSequenceGenerator", strategy = PooledSequenceGenerator.NAME,
+        parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "jhi_persistent_audit_event_seq"))
     @Column(name = "event_id")
     private Long id;
 
@@ -0,0 +1,43 @@
+package com.tecforte.blog.domain;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Identifier generator giving each entity its own sequence, with ids allocated in blocks by the {@code pooled-lo} optimizer.
+ * <p>
+ * Each sequence value is the first id of a block of {@value #DEFAULT_INCREMENT_SIZE} ids, handed out in memory, so
+ * inserts only hit the sequence once per block. The block size of a sequence can be overridden with the
+ * {@code blog.id.<sequence_name>.increment_size} Hibernate setting, which must match the {@code INCREMENT BY}
+ * of the database sequence.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String NAME = "com.tecforte.blog.domain.PooledSequenceGenerator";
+
+    /**
+     * Must stay equal to the {@code sequenceIncrement} property of the {@code 20261018110000_added_sequences_per_entity}
+     * changelog, the {@code INCREMENT BY} of the sequences it creates.
+     */
+    public static final int DEFAULT_INCREMENT_SIZE = 50;
+
+    private static final String INCREMENT_SIZE_SETTING = "blog.id.%s.increment_size";
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        String sequenceName = params.getProperty(SEQUENCE_PARAM);
+        if (sequenceName == null) {
+            throw new MappingException("The " + SEQUENCE_PARAM + " parameter is required");
+        }
+        Object incrementSize = serviceRegistry.getService(ConfigurationService.class).getSettings()
+            .get(String.format(INCREMENT_SIZE_SETTING, sequenceName));
+        params.setProperty(INCREMENT_PARAM, incrementSize == null ? Integer.toString(DEFAULT_INCREMENT_SIZE) : incrementSize.toString());
+        params.setProperty(OPT_PARAM, "pooled-lo");
+        super.configure(type, params, serviceRegistry);
+    }
+}
@@ -0,0 +1,22 @@
+package com.tecforte.blog.repository;
+import com.tecforte.blog.domain.BlogEmojiStats;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+
+/**
+ * Spring Data  repository for the BlogEmojiStats entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface BlogEmojiStatsRepository extends JpaRepository<BlogEmojiStats, BlogEmojiStats.Key>, BlogEmojiStatsRepositoryCustom {
+
+    List<BlogEmojiStats> findAllByBlogId(Long blogId);
+
+    @Modifying
+    @Query("delete from BlogEmojiStats stats where stats.blogId = :blogId")
+    int deleteByBlogId(@Param("blogId") Long blogId);
+}
@@ -0,0 +1,35 @@
+package com.tecforte.blog.repository;
+
+import com.tecforte.blog.domain.enumeration.Emoji;
+
+/**
+ * Custom, hand-written queries for the {@link com.tecforte.blog.domain.BlogEmojiStats} entity.
+ */
+public interface BlogEmojiStatsRepositoryCustom {
+
+    /**
+     * Add a delta to a counter, in the database.
+     * <p>
+     * Pending changes are flushed first. Only the counter changed is refreshed, if it is loaded in the persistence
+     * context: the other entities of the caller's transaction stay managed.
+     *
+     * @param blogId the id of the blog.
+     * @param emoji the emoji.
+     * @param delta the number of entries to add, or to remove when negative.
+     * @return {@code 1} if the counter was changed, {@code 0} if it does not exist.
+     */
+    int increment(Long blogId, Emoji emoji, long delta);
+
+    /**
+     * Create a counter, unless it already exists.
+     * <p>
+     * On PostgreSQL, a counter created concurrently by another transaction is waited for, then left as it is,
+     * without failing the current transaction. Other databases only skip the counters already committed.
+     *
+     * @param blogId the id of the blog.
+     * @param emoji the emoji.
+     * @param entryCount the initial value of the counter.
+     * @return {@code 1} if the counter was created, {@code 0} if it already existed.
+     */
+    int insertIfAbsent(Long blogId, Emoji emoji, long entryCount);
+}
@@ -0,0 +1,78 @@
+package com.tecforte.blog.repository;
+
+import com.tecforte.blog.domain.BlogEmojiStats;
+import com.tecforte.blog.domain.enumeration.Emoji;
+import org.hibernate.dialect.PostgreSQL95Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Implementation of {@link BlogEmojiStatsRepositoryCustom}, picked up by Spring Data as a fragment of
+ * {@link BlogEmojiStatsRepository}.
+ */
+public class BlogEmojiStatsRepositoryImpl implements BlogEmojiStatsRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    private volatile Boolean onConflict;
+
+    public BlogEmojiStatsRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int increment(Long blogId, Emoji emoji, long delta) {
+        entityManager.flush();
+        int updated = entityManager.createQuery("update BlogEmojiStats stats set stats.entryCount = stats.entryCount + :delta" +
+            " where stats.blogId = :blogId and stats.emoji = :emoji")
+            .setParameter("delta", delta)
+            .setParameter("blogId", blogId)
+            .setParameter("emoji", emoji)
+            .executeUpdate();
+        Object loaded = findLoaded(new BlogEmojiStats.Key(blogId, emoji));
+        if (loaded != null) {
+            entityManager.refresh(loaded);
+        }
+        return updated;
+    }
+
+    @Override
+    public int insertIfAbsent(Long blogId, Emoji emoji, long entryCount) {
+        String sql = isOnConflictSupported()
+            ? "insert into blog_emoji_stats (blog_id, emoji, entry_count) values (:blogId, :emoji, :entryCount)" +
+                " on conflict do nothing"
+            : "insert into blog_emoji_stats (blog_id, emoji, entry_count) select :blogId, :emoji, :entryCount" +
+                " where not exists (select 1 from blog_emoji_stats where blog_id = :blogId and emoji = :emoji)";
+        // Only the counters are written: without this, Hibernate would invalidate the cached results of every query
+        return entityManager.createNativeQuery(sql)
+            .unwrap(NativeQuery.class)
+            .addSynchronizedEntityClass(BlogEmojiStats.class)
+            .setParameter("blogId", blogId)
+            .setParameter("emoji", emoji.name())
+            .setParameter("entryCount", entryCount)
+            .executeUpdate();
+    }
+
+    /**
+     * @return the counter if it is in the persistence context, without loading it otherwise.
+     */
+    private Object findLoaded(BlogEmojiStats.Key key) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(BlogEmojiStats.class);
+        return session.getPersistenceContext().getEntity(session.generateEntityKey(key, persister));
+    }
+
+    private boolean isOnConflictSupported() {
+        Boolean supported = onConflict;
+        if (supported == null) {
+            supported = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQL95Dialect;
+            onConflict = supported;
+        }
+        return supported;
+    }
+}
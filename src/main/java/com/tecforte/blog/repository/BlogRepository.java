@@ -1,21 +1,41 @@
 package com.tecforte.blog.repository;
 import com.tecforte.blog.domain.Blog;
+import com.tecforte.blog.service.dto.BlogMetadataDTO;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Spring Data  repository for the Blog entity.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface BlogRepository extends JpaRepository<Blog, Long> {
+public interface BlogRepository extends JpaRepository<Blog, Long>, BlogRepositoryCustom {
 
+    String BLOG_METADATA_CACHE = "blogMetadata";
+
+    String BLOGS_BY_USER_QUERY_CACHE = "blogsByUserQuery";
+
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, value = BLOGS_BY_USER_QUERY_CACHE)
+    })
     @Query("select blog from Blog blog where blog.user.login = ?#{principal.username}")
     List<Blog> findByUserIsCurrentUser();
 
-    @Query("select distinct blog from Blog blog left join fetch blog.entries")
-    List<Blog> findAllWithEagerRelationships();
+    @Cacheable(cacheNames = BLOG_METADATA_CACHE)
+    @Query("select new com.tecforte.blog.service.dto.BlogMetadataDTO(blog.id, blog.name, blog.positive, owner.id, owner.login)" +
+        " from Blog blog left join blog.user owner where blog.id = :id")
+    Optional<BlogMetadataDTO> findMetadataById(@Param("id") Long id);
+
+    @Query("select new com.tecforte.blog.service.dto.BlogMetadataDTO(blog.id, blog.name, blog.positive, owner.id, owner.login)" +
+        " from Blog blog left join blog.user owner where blog.id in :ids")
+    List<BlogMetadataDTO> findMetadataByIdIn(@Param("ids") Collection<Long> ids);
 
 }
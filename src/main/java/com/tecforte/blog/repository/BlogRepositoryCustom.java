@@ -0,0 +1,20 @@
+package com.tecforte.blog.repository;
+
+import java.util.List;
+
+/**
+ * Custom, hand-written queries for the {@link com.tecforte.blog.domain.Blog} entity.
+ */
+public interface BlogRepositoryCustom {
+
+    /**
+     * Get a page of blogs in {@code id} order, using keyset pagination, each paired with its number of entries.
+     *
+     * @param afterId the id of the last blog of the previous page, or {@code null} for the first page.
+     * @param ownerLogin only keep the blogs of this user, ignored if {@code null}.
+     * @param positive only keep the blogs of this polarity, ignored if {@code null}.
+     * @param limit the maximum number of blogs.
+     * @return rows of {@code [Blog, Long]}.
+     */
+    List<Object[]> findPageWithEntryCount(Long afterId, String ownerLogin, Boolean positive, int limit);
+}
@@ -0,0 +1,51 @@
+package com.tecforte.blog.repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementation of {@link BlogRepositoryCustom}, picked up by Spring Data as a fragment of {@link BlogRepository}.
+ */
+public class BlogRepositoryImpl implements BlogRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    public BlogRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Object[]> findPageWithEntryCount(Long afterId, String ownerLogin, Boolean positive, int limit) {
+        List<String> conditions = new ArrayList<>(3);
+        if (afterId != null) {
+            conditions.add("blog.id > :afterId");
+        }
+        if (ownerLogin != null) {
+            conditions.add("owner.login = :ownerLogin");
+        }
+        if (positive != null) {
+            conditions.add("blog.positive = :positive");
+        }
+        StringBuilder jpql = new StringBuilder("select blog, (select count(entry.id) from Entry entry where entry.blog = blog)" +
+            " from Blog blog left join fetch blog.user owner");
+        if (!conditions.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", conditions));
+        }
+        jpql.append(" order by blog.id");
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        }
+        if (ownerLogin != null) {
+            query.setParameter("ownerLogin", ownerLogin);
+        }
+        if (positive != null) {
+            query.setParameter("positive", positive);
+        }
+        return query
+            .setMaxResults(limit)
+            .getResultList();
+    }
+}
@@ -2,6 +2,7 @@ package com.tecforte.blog.repository;
 
 import com.tecforte.blog.config.Constants;
 import com.tecforte.blog.config.audit.AuditEventConverter;
+import com.tecforte.blog.config.audit.AuditEventWriter;
 import com.tecforte.blog.domain.PersistentAuditEvent;
 
 import org.slf4j.Logger;
@@ -9,14 +10,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.boot.actuate.audit.AuditEventRepository;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.*;
 
 /**
  * An implementation of Spring Boot's {@link AuditEventRepository}.
+ * <p>
+ * Events are written by the {@link AuditEventWriter}, in the background unless configured otherwise.
  */
 @Repository
 public class CustomAuditEventRepository implements AuditEventRepository {
@@ -32,13 +33,16 @@ public class CustomAuditEventRepository implements AuditEventRepository {
 
     private final AuditEventConverter auditEventConverter;
 
+    private final AuditEventWriter auditEventWriter;
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     public CustomAuditEventRepository(PersistenceAuditEventRepository persistenceAuditEventRepository,
-            AuditEventConverter auditEventConverter) {
+            AuditEventConverter auditEventConverter, AuditEventWriter auditEventWriter) {
 
         this.persistenceAuditEventRepository = persistenceAuditEventRepository;
         this.auditEventConverter = auditEventConverter;
+        this.auditEventWriter = auditEventWriter;
     }
 
     @Override
@@ -49,7 +53,6 @@ public class CustomAuditEventRepository implements AuditEventRepository {
     }
 
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void add(AuditEvent event) {
         if (!AUTHORIZATION_FAILURE.equals(event.getType()) &&
             !Constants.ANONYMOUS_USER.equals(event.getPrincipal())) {
@@ -60,7 +63,7 @@ public class CustomAuditEventRepository implements AuditEventRepository {
             persistentAuditEvent.setAuditEventDate(event.getTimestamp());
             Map<String, String> eventData = auditEventConverter.convertDataToStrings(event.getData());
             persistentAuditEvent.setData(truncate(eventData));
-            persistenceAuditEventRepository.save(persistentAuditEvent);
+            auditEventWriter.write(persistentAuditEvent);
         }
     }
 
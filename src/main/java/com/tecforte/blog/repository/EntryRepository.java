@@ -1,14 +1,72 @@
 package com.tecforte.blog.repository;
 import com.tecforte.blog.domain.Entry;
+import com.tecforte.blog.domain.enumeration.Emoji;
+import com.tecforte.blog.service.dto.EntrySummaryDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+
 
 /**
  * Spring Data  repository for the Entry entity.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface EntryRepository extends JpaRepository<Entry, Long> {
+public interface EntryRepository extends JpaRepository<Entry, Long>, EntryRepositoryCustom {
+
+    String ENTRIES_BY_BLOG_QUERY_CACHE = "entriesByBlogQuery";
+
+    long countByBlogId(Long blogId);
+
+    long countByBlogIdAndEmoji(Long blogId, Emoji emoji);
+
+    /**
+     * Lock entries until the end of the transaction, and get their current blog and emoji.
+     * <p>
+     * Locking makes the values read here the ones the entries had right before the caller changes them, even when
+     * other transactions change the same entries concurrently: they wait for this one, then read its outcome.
+     *
+     * @param ids the ids of the entries.
+     * @return rows of {@code [blog_id, emoji]}, for the entries that exist and belong to a blog.
+     */
+    @Query(value = "select e.blog_id, e.emoji from entry e where e.id in (:ids) and e.blog_id is not null for update", nativeQuery = true)
+    List<Object[]> lockBlogIdAndEmojiByIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "blog")
+    Slice<Entry> findByIdLessThan(Long id, Pageable pageable);
+
+    @Query(value = "select new com.tecforte.blog.service.dto.EntrySummaryDTO(entry.id, entry.title, entry.emoji, blog.id, blog.name, entry.createdDate)" +
+        " from Entry entry left join entry.blog blog",
+        countQuery = "select count(entry) from Entry entry")
+    Page<EntrySummaryDTO> findAllSummaries(Pageable pageable);
+
+    @Query("select new com.tecforte.blog.service.dto.EntrySummaryDTO(entry.id, entry.title, entry.emoji, blog.id, blog.name, entry.createdDate)" +
+        " from Entry entry left join entry.blog blog where entry.id < :id")
+    Slice<EntrySummaryDTO> findSummariesByIdLessThan(@Param("id") Long id, Pageable pageable);
+
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, value = ENTRIES_BY_BLOG_QUERY_CACHE)
+    })
+    @Query("select new com.tecforte.blog.service.dto.EntrySummaryDTO(entry.id, entry.title, entry.emoji, blog.id, blog.name, entry.createdDate)" +
+        " from Entry entry join entry.blog blog where blog.id = :blogId order by entry.createdDate desc, entry.id desc")
+    Slice<EntrySummaryDTO> findSummariesByBlogId(@Param("blogId") Long blogId, Pageable pageable);
+
+    @Query("select new com.tecforte.blog.service.dto.EntrySummaryDTO(entry.id, entry.title, entry.emoji, blog.id, blog.name, entry.createdDate)" +
+        " from Entry entry left join entry.blog blog where entry.id in :ids order by entry.id desc")
+    List<EntrySummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select entry from Entry entry left join fetch entry.blog where entry.id in :ids order by entry.id")
+    List<Entry> findAllWithBlogByIdIn(@Param("ids") Collection<Long> ids);
 
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Entry entry where entry.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
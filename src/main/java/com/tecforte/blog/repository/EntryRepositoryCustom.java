@@ -0,0 +1,108 @@
+package com.tecforte.blog.repository;
+
+import com.tecforte.blog.domain.Entry;
+import com.tecforte.blog.service.dto.EntrySummaryDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Custom, hand-written queries for the {@link com.tecforte.blog.domain.Entry} entity.
+ */
+public interface EntryRepositoryCustom {
+
+    /**
+     * Stream all the entries in {@code id} order, fetching them in chunks with keyset pagination.
+     * <p>
+     * The persistence context is flushed and cleared before each chunk is fetched, so at most one chunk is held
+     * in memory at a time: entities handed out by the stream are detached once the next chunk is loaded.
+     * Must be consumed inside a transaction.
+     *
+     * @param chunkSize the number of entries fetched per query.
+     * @return a lazily populated stream of entries.
+     */
+    Stream<Entry> streamAll(int chunkSize);
+
+    /**
+     * Get the chunk of entries following an id, in {@code id} order: the building block of a keyset scan that
+     * spans several transactions, each chunk being read and processed in its own.
+     *
+     * @param blogId the id of the blog to scan, or {@code null} to scan all the entries.
+     * @param afterId the id of the last entry of the previous chunk, or {@code null} for the first chunk.
+     * @param upToId the last id of the range to scan, inclusive, or {@code null} to scan to the end.
+     * @param chunkSize the maximum number of entries to return.
+     * @return the entries, with their blog; fewer than {@code chunkSize} when the scan is over.
+     */
+    List<Entry> findChunkAfter(Long blogId, Long afterId, Long upToId, int chunkSize);
+
+    /**
+     * Get the chunk of entries following an id whose title or content contains any of the terms, ignoring case,
+     * in {@code id} order.
+     * <p>
+     * A term is also found inside longer words: callers check the title and content returned.
+     *
+     * @param terms the lower-cased terms to look for, made of letters and digits only.
+     * @param afterId the id of the last entry of the previous chunk, or {@code null} for the first chunk.
+     * @param chunkSize the maximum number of entries to return.
+     * @return rows of {@code [id, title, content]}; fewer than {@code chunkSize} when the scan is over.
+     */
+    List<Object[]> findTextChunkContainingAnyTerm(Collection<String> terms, Long afterId, int chunkSize);
+
+    /**
+     * Get the lowest and highest ids of the entries, to split them into ranges scanned in parallel.
+     *
+     * @param blogId the id of the blog, or {@code null} for all the entries.
+     * @return the {@code [min, max]} ids, or empty if there is no entry.
+     */
+    Optional<long[]> findIdRange(Long blogId);
+
+    /**
+     * Insert new entries, flushing and clearing the persistence context every {@code batchSize} entries.
+     * <p>
+     * With {@code hibernate.jdbc.batch_size} set, each flush sends its inserts as JDBC batches, and clearing keeps
+     * the persistence context, and the dirty checking done at flush time, bounded by the batch size.
+     * The entries are detached once this method returns. Must be called inside a transaction.
+     *
+     * @param entries the entries to insert, without id.
+     * @param batchSize the number of entries inserted between two flushes.
+     * @return the same entries, with their generated id.
+     */
+    List<Entry> insertAll(List<Entry> entries, int batchSize);
+
+    /**
+     * Get a slice of the summaries of the entries of a blog, newest first, following the entry at the given keyset.
+     * <p>
+     * On PostgreSQL, the keyset is compared with a row value comparison, {@code (created_date, id) < (?, ?)}, which
+     * the planner turns into a single range scan of the {@code (blog_id, created_date desc, id desc)} index. Other
+     * databases get the equivalent {@code or} predicate. The results are cached in the
+     * {@link EntryRepository#ENTRIES_BY_BLOG_QUERY_CACHE} region, like the first slice.
+     *
+     * @param blogId the id of the blog.
+     * @param createdDate the creation date of the last entry of the previous slice.
+     * @param id the id of the last entry of the previous slice.
+     * @param pageable the size of the slice, its page number and sort are ignored.
+     * @return the slice of entry summaries.
+     */
+    Slice<EntrySummaryDTO> findSummariesByBlogIdBefore(Long blogId, Instant createdDate, Long id, Pageable pageable);
+
+    /**
+     * Full-text search of the entries, on their title and content, best matches first.
+     * <p>
+     * On PostgreSQL, the query words are stemmed and looked up in the {@code search_vector} column, through its GIN
+     * index, and the entries are ranked with {@code ts_rank}, words of the title weighing more than words of the
+     * content. Other databases fall back to a case-insensitive pattern matching of each word, ranking the entries
+     * by the number of words found in their title.
+     * In both cases, an entry must contain all the words of the query.
+     *
+     * @param query the words to look for.
+     * @param pageable the pagination information, its sort is ignored.
+     * @return the page of entry summaries.
+     */
+    Page<EntrySummaryDTO> search(String query, Pageable pageable);
+}
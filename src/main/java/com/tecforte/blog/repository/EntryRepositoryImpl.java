@@ -0,0 +1,319 @@
+package com.tecforte.blog.repository;
+
+import com.tecforte.blog.domain.Entry;
+import com.tecforte.blog.domain.enumeration.Emoji;
+import com.tecforte.blog.service.dto.EntrySummaryDTO;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Implementation of {@link EntryRepositoryCustom}, picked up by Spring Data as a fragment of {@link EntryRepository}.
+ */
+public class EntryRepositoryImpl implements EntryRepositoryCustom {
+
+    private static final String FETCH_SIZE_HINT = "org.hibernate.fetchSize";
+
+    private static final String SUMMARY_COLUMNS = "select e.id as entry_id, e.title, e.emoji, b.id as blog_id, b.name as blog_name, e.created_date";
+
+    private static final String TS_QUERY = "plainto_tsquery('pg_catalog.english', :query)";
+
+    /**
+     * Most words of a query matched by the pattern matching fallback, the other ones are ignored.
+     */
+    private static final int MAX_FALLBACK_WORDS = 8;
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private final EntityManager entityManager;
+
+    private volatile Boolean postgreSQL;
+
+    public EntryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Stream<Entry> streamAll(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        Iterator<Entry> iterator = new KeysetIterator(chunkSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public List<Entry> insertAll(List<Entry> entries, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            entityManager.persist(entries.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return entries;
+    }
+
+    @Override
+    public List<Entry> findChunkAfter(Long blogId, Long afterId, Long upToId, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        return findChunk(blogId, afterId, upToId, chunkSize);
+    }
+
+    @Override
+    public List<Object[]> findTextChunkContainingAnyTerm(Collection<String> terms, Long afterId, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> matches = new ArrayList<>(terms.size());
+        for (int i = 0; i < terms.size(); i++) {
+            matches.add("lower(entry.title) like :term" + i + " or lower(entry.content) like :term" + i);
+        }
+        String jpql = "select entry.id, entry.title, entry.content from Entry entry where (" + String.join(" or ", matches) + ")" +
+            (afterId == null ? "" : " and entry.id > :afterId") + " order by entry.id";
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
+        int i = 0;
+        for (String term : terms) {
+            query.setParameter("term" + i++, "%" + term + "%");
+        }
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        }
+        return query
+            .setMaxResults(chunkSize)
+            .setHint(FETCH_SIZE_HINT, chunkSize)
+            .getResultList();
+    }
+
+    @Override
+    public Optional<long[]> findIdRange(Long blogId) {
+        String jpql = "select min(entry.id), max(entry.id) from Entry entry" + (blogId == null ? "" : " where entry.blog.id = :blogId");
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
+        if (blogId != null) {
+            query.setParameter("blogId", blogId);
+        }
+        Object[] range = query.getSingleResult();
+        if (range[0] == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new long[]{((Number) range[0]).longValue(), ((Number) range[1]).longValue()});
+    }
+
+    @Override
+    public Slice<EntrySummaryDTO> findSummariesByBlogIdBefore(Long blogId, Instant createdDate, Long id, Pageable pageable) {
+        String before = isPostgreSQL()
+            ? "(entry.createdDate, entry.id) < (:createdDate, :id)"
+            : "(entry.createdDate < :createdDate or (entry.createdDate = :createdDate and entry.id < :id))";
+        List<EntrySummaryDTO> content = entityManager.createQuery("select new com.tecforte.blog.service.dto.EntrySummaryDTO(" +
+            "entry.id, entry.title, entry.emoji, blog.id, blog.name, entry.createdDate)" +
+            " from Entry entry join entry.blog blog where blog.id = :blogId and " + before +
+            " order by entry.createdDate desc, entry.id desc", EntrySummaryDTO.class)
+            .setHint(QueryHints.HINT_CACHEABLE, true)
+            .setHint(QueryHints.HINT_CACHE_REGION, EntryRepository.ENTRIES_BY_BLOG_QUERY_CACHE)
+            .setParameter("blogId", blogId)
+            .setParameter("createdDate", createdDate)
+            .setParameter("id", id)
+            // One more row tells whether there is a next slice
+            .setMaxResults(pageable.getPageSize() + 1)
+            .getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    @Override
+    public Page<EntrySummaryDTO> search(String query, Pageable pageable) {
+        if (isPostgreSQL()) {
+            return searchVector(query, pageable);
+        }
+        return searchPatterns(query, pageable);
+    }
+
+    private Page<EntrySummaryDTO> searchVector(String query, Pageable pageable) {
+        List<EntrySummaryDTO> content = summaries(entityManager.createNativeQuery(SUMMARY_COLUMNS +
+            " from entry e left join blog b on b.id = e.blog_id, " + TS_QUERY + " q" +
+            " where e.search_vector @@ q order by ts_rank(e.search_vector, q) desc, e.id desc")
+            .setParameter("query", query), pageable);
+        return PageableExecutionUtils.getPage(content, pageable, () -> ((Number) entityManager.createNativeQuery(
+            "select count(*) from entry e where e.search_vector @@ " + TS_QUERY)
+            .setParameter("query", query)
+            .getSingleResult()).longValue());
+    }
+
+    private Page<EntrySummaryDTO> searchPatterns(String query, Pageable pageable) {
+        List<String> words = WORD_SEPARATOR.splitAsStream(query.toLowerCase(Locale.ROOT))
+            .filter(word -> !word.isEmpty())
+            .distinct()
+            .limit(MAX_FALLBACK_WORDS)
+            .collect(Collectors.toList());
+        if (words.isEmpty()) {
+            return PageableExecutionUtils.getPage(Collections.emptyList(), pageable, () -> 0L);
+        }
+        List<String> conditions = new ArrayList<>(words.size());
+        List<String> ranks = new ArrayList<>(words.size());
+        for (int i = 0; i < words.size(); i++) {
+            String title = "lower(e.title) like :word" + i + " escape '!'";
+            conditions.add("(" + title + " or lower(e.content) like :word" + i + " escape '!')");
+            ranks.add("case when " + title + " then 1 else 0 end");
+        }
+        String where = " where " + String.join(" and ", conditions);
+        Query select = entityManager.createNativeQuery(SUMMARY_COLUMNS + " from entry e left join blog b on b.id = e.blog_id" +
+            where + " order by " + String.join(" + ", ranks) + " desc, e.id desc");
+        Query count = entityManager.createNativeQuery("select count(*) from entry e" + where);
+        for (int i = 0; i < words.size(); i++) {
+            String pattern = "%" + words.get(i).replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+            select.setParameter("word" + i, pattern);
+            count.setParameter("word" + i, pattern);
+        }
+        List<EntrySummaryDTO> content = summaries(select, pageable);
+        return PageableExecutionUtils.getPage(content, pageable, () -> ((Number) count.getSingleResult()).longValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<EntrySummaryDTO> summaries(Query query, Pageable pageable) {
+        List<Object[]> rows = query
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultList();
+        List<EntrySummaryDTO> summaries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            summaries.add(new EntrySummaryDTO(
+                ((Number) row[0]).longValue(),
+                (String) row[1],
+                row[2] == null ? null : Emoji.valueOf((String) row[2]),
+                row[3] == null ? null : ((Number) row[3]).longValue(),
+                (String) row[4],
+                row[5] instanceof Timestamp ? ((Timestamp) row[5]).toInstant() : null));
+        }
+        return summaries;
+    }
+
+    private boolean isPostgreSQL() {
+        Boolean supported = postgreSQL;
+        if (supported == null) {
+            supported = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQL81Dialect;
+            postgreSQL = supported;
+        }
+        return supported;
+    }
+
+    private List<Entry> findChunk(Long blogId, Long afterId, Long upToId, int chunkSize) {
+        List<String> conditions = new ArrayList<>(3);
+        if (blogId != null) {
+            conditions.add("entry.blog.id = :blogId");
+        }
+        if (afterId != null) {
+            conditions.add("entry.id > :afterId");
+        }
+        if (upToId != null) {
+            conditions.add("entry.id <= :upToId");
+        }
+        StringBuilder jpql = new StringBuilder("select entry from Entry entry left join fetch entry.blog");
+        if (!conditions.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", conditions));
+        }
+        jpql.append(" order by entry.id");
+        TypedQuery<Entry> query = entityManager.createQuery(jpql.toString(), Entry.class);
+        if (blogId != null) {
+            query.setParameter("blogId", blogId);
+        }
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        }
+        if (upToId != null) {
+            query.setParameter("upToId", upToId);
+        }
+        return query
+            .setMaxResults(chunkSize)
+            .setHint(FETCH_SIZE_HINT, chunkSize)
+            .getResultList();
+    }
+
+    /**
+     * Walks the entry table chunk by chunk, seeking past the last id seen instead of using an offset.
+     */
+    private final class KeysetIterator implements Iterator<Entry> {
+
+        private final int chunkSize;
+
+        private List<Entry> chunk;
+
+        private int position;
+
+        private Long lastId;
+
+        private boolean exhausted;
+
+        private KeysetIterator(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (chunk != null && position < chunk.size()) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+            fetchNextChunk();
+            return position < chunk.size();
+        }
+
+        @Override
+        public Entry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return chunk.get(position++);
+        }
+
+        private void fetchNextChunk() {
+            if (chunk != null) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+            chunk = findChunk(null, lastId, null, chunkSize);
+            position = 0;
+            exhausted = chunk.size() < chunkSize;
+            if (!chunk.isEmpty()) {
+                lastId = chunk.get(chunk.size() - 1).getId();
+            }
+        }
+    }
+}
@@ -4,8 +4,12 @@ import com.tecforte.blog.domain.PersistentAuditEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -20,4 +24,18 @@ public interface PersistenceAuditEventRepository extends JpaRepository<Persisten
     Page<PersistentAuditEvent> findAllByAuditEventDateBetween(Instant fromDate, Instant toDate, Pageable pageable);
 
     List<PersistentAuditEvent> findByAuditEventDateBefore(Instant before);
+
+    @Query("select event.id from PersistentAuditEvent event where event.auditEventDate < :before")
+    List<Long> findIdsByAuditEventDateBefore(@Param("before") Instant before, Pageable pageable);
+
+    @Modifying
+    @Query(value = "delete from jhi_persistent_audit_evt_data where event_id in (:ids)", nativeQuery = true)
+    int deleteDataByEventIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Delete events, without their data rows, which must be deleted first.
+     */
+    @Modifying
+    @Query("delete from PersistentAuditEvent event where event.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
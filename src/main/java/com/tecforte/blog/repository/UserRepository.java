@@ -8,8 +8,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
 import java.time.Instant;
@@ -24,6 +26,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     String USERS_BY_EMAIL_CACHE = "usersByEmail";
 
+    String USER_BY_LOGIN_QUERY_CACHE = "userByLoginQuery";
+
     Optional<User> findOneByActivationKey(String activationKey);
 
     List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
@@ -32,6 +36,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findOneByEmailIgnoreCase(String email);
 
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, value = USER_BY_LOGIN_QUERY_CACHE)
+    })
     Optional<User> findOneByLogin(String login);
 
     @EntityGraph(attributePaths = "authorities")
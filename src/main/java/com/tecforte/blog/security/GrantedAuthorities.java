@@ -0,0 +1,83 @@
+package com.tecforte.blog.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of the granted authorities, shared by all the principals having the same ones.
+ * <p>
+ * Users only have a few distinct sets of authorities, so each of them is built once, as an immutable list sorted
+ * by name, and then reused instead of being built again at each authentication.
+ */
+public final class GrantedAuthorities {
+
+    /**
+     * Most authority lists kept, far above the number of distinct role combinations, so that it stays bounded anyway.
+     */
+    private static final int MAX_SIZE = 256;
+
+    /**
+     * The authority lists, by comma-separated names, either as given or sorted.
+     */
+    private static final ConcurrentMap<String, List<GrantedAuthority>> REGISTRY = new ConcurrentHashMap<>();
+
+    private GrantedAuthorities() {
+    }
+
+    /**
+     * Get the authorities with the given names.
+     *
+     * @param names the comma-separated names of the authorities, as in a token.
+     * @return the shared immutable list of the authorities, sorted by name.
+     */
+    public static List<GrantedAuthority> of(String names) {
+        List<GrantedAuthority> authorities = REGISTRY.get(names);
+        if (authorities != null) {
+            return authorities;
+        }
+        return intern(names, Arrays.asList(names.split(",")));
+    }
+
+    /**
+     * Get the authorities with the given names.
+     *
+     * @param names the names of the authorities.
+     * @return the shared immutable list of the authorities, sorted by name.
+     */
+    public static List<GrantedAuthority> of(Collection<String> names) {
+        if (names.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return of(String.join(",", names));
+    }
+
+    private static List<GrantedAuthority> intern(String names, List<String> split) {
+        List<String> sorted = split.stream().distinct().sorted().collect(Collectors.toList());
+        String canonicalNames = String.join(",", sorted);
+        List<GrantedAuthority> authorities = REGISTRY.get(canonicalNames);
+        if (authorities == null) {
+            authorities = Collections.unmodifiableList(sorted.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList()));
+            if (REGISTRY.size() >= MAX_SIZE) {
+                return authorities;
+            }
+            List<GrantedAuthority> previous = REGISTRY.putIfAbsent(canonicalNames, authorities);
+            if (previous != null) {
+                authorities = previous;
+            }
+        }
+        if (!names.equals(canonicalNames) && REGISTRY.size() < MAX_SIZE) {
+            REGISTRY.putIfAbsent(names, authorities);
+        }
+        return authorities;
+    }
+}
@@ -0,0 +1,210 @@
+package com.tecforte.blog.security.jwt;
+
+import com.tecforte.blog.config.ApplicationProperties;
+import com.tecforte.blog.security.AuthoritiesConstants;
+import com.tecforte.blog.security.GrantedAuthorities;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.*;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import io.github.jhipster.config.JHipsterProperties;
+import io.jsonwebtoken.io.Decoders;
+
+/**
+ * Creates and verifies compact tokens, a shorter alternative to the JWTs of {@link TokenProvider}, enabled with
+ * {@code application.compact-token.enabled}.
+ * <p>
+ * A compact token is the base64url encoding, without padding, of a fixed layout:
+ * <ul>
+ *     <li>1 byte: the format version, {@value #VERSION};</li>
+ *     <li>8 bytes: the expiry, in seconds since the epoch;</li>
+ *     <li>4 bytes: the authorities, one bit each, in the order of {@link #AUTHORITY_BITS};</li>
+ *     <li>1 byte, then as many: the subject, the UTF-8 login of the user;</li>
+ *     <li>32 bytes: the HMAC-SHA256 of all the above.</li>
+ * </ul>
+ * It has no dot, unlike a JWT, so both can be sent in the same header.
+ */
+@Component
+public class CompactTokenProvider implements InitializingBean {
+
+    private final Logger log = LoggerFactory.getLogger(CompactTokenProvider.class);
+
+    private static final byte VERSION = 1;
+
+    /**
+     * The authorities a compact token can carry, by bit. Only append to this list, as the order is in the tokens.
+     */
+    private static final List<String> AUTHORITY_BITS = Collections.unmodifiableList(Arrays.asList(
+        AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER, AuthoritiesConstants.ANONYMOUS));
+
+    private static final int MAC_LENGTH = 32;
+
+    private static final int HEADER_LENGTH = 1 + 8 + 4 + 1;
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    /**
+     * The authorities of each bit mask, all of them being built up front.
+     */
+    private static final List<List<GrantedAuthority>> AUTHORITIES_BY_MASK = new ArrayList<>();
+
+    static {
+        for (int mask = 0; mask < 1 << AUTHORITY_BITS.size(); mask++) {
+            List<String> names = new ArrayList<>();
+            for (int bit = 0; bit < AUTHORITY_BITS.size(); bit++) {
+                if ((mask & 1 << bit) != 0) {
+                    names.add(AUTHORITY_BITS.get(bit));
+                }
+            }
+            AUTHORITIES_BY_MASK.add(GrantedAuthorities.of(names));
+        }
+    }
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final ApplicationProperties applicationProperties;
+
+    private ThreadLocal<Mac> mac;
+
+    private long tokenValidityInMilliseconds;
+
+    private long tokenValidityInMillisecondsForRememberMe;
+
+    public CompactTokenProvider(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        JHipsterProperties.Security.Authentication.Jwt jwt = jHipsterProperties.getSecurity().getAuthentication().getJwt();
+        byte[] secretBytes = StringUtils.isEmpty(jwt.getSecret())
+            ? Decoders.BASE64.decode(jwt.getBase64Secret())
+            : jwt.getSecret().getBytes(StandardCharsets.UTF_8);
+        // A key of its own, derived from the JWT secret, so that a MAC of one format never verifies the other
+        Mac derivation = Mac.getInstance(MAC_ALGORITHM);
+        derivation.init(new SecretKeySpec(secretBytes, MAC_ALGORITHM));
+        SecretKeySpec key = new SecretKeySpec(derivation.doFinal("compact-token".getBytes(StandardCharsets.UTF_8)), MAC_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(MAC_ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(MAC_ALGORITHM + " is not available", e);
+            }
+        });
+        this.tokenValidityInMilliseconds = 1000 * jwt.getTokenValidityInSeconds();
+        this.tokenValidityInMillisecondsForRememberMe = 1000 * jwt.getTokenValidityInSecondsForRememberMe();
+    }
+
+    public boolean isEnabled() {
+        return applicationProperties.getCompactToken().isEnabled();
+    }
+
+    /**
+     * @return {@code true} if the token would be a compact token rather than a JWT.
+     */
+    public static boolean isCompactToken(String token) {
+        return token.indexOf('.') < 0;
+    }
+
+    /**
+     * Create a compact token for an authentication.
+     *
+     * @param authentication the authentication of the user.
+     * @param rememberMe whether the token lasts as long as a remembered session.
+     * @return the token, or empty if compact tokens are disabled, or if they cannot carry the login or an authority.
+     */
+    public Optional<String> createToken(Authentication authentication, boolean rememberMe) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        int mask = 0;
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            int bit = AUTHORITY_BITS.indexOf(authority.getAuthority());
+            if (bit < 0) {
+                return Optional.empty();
+            }
+            mask |= 1 << bit;
+        }
+        byte[] login = authentication.getName().getBytes(StandardCharsets.UTF_8);
+        if (login.length > 0xFF) {
+            return Optional.empty();
+        }
+        long validity = System.currentTimeMillis() + (rememberMe ? tokenValidityInMillisecondsForRememberMe : tokenValidityInMilliseconds);
+
+        ByteBuffer token = ByteBuffer.allocate(HEADER_LENGTH + login.length + MAC_LENGTH);
+        token.put(VERSION)
+            .putLong(validity / 1000)
+            .putInt(mask)
+            .put((byte) login.length)
+            .put(login);
+        Mac tokenMac = mac.get();
+        tokenMac.update(token.array(), 0, token.position());
+        token.put(tokenMac.doFinal());
+        return Optional.of(Base64.getUrlEncoder().withoutPadding().encodeToString(token.array()));
+    }
+
+    /**
+     * Verify a compact token and get its authentication.
+     *
+     * @param authToken the token sent by the client.
+     * @return a new authentication, or empty if compact tokens are disabled, or if the token is invalid or expired.
+     */
+    public Optional<Authentication> resolveAuthentication(String authToken) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(authToken);
+        } catch (IllegalArgumentException e) {
+            log.info("Malformed compact token.");
+            return Optional.empty();
+        }
+        if (bytes.length < HEADER_LENGTH + MAC_LENGTH || bytes[0] != VERSION
+            || bytes.length != HEADER_LENGTH + (bytes[HEADER_LENGTH - 1] & 0xFF) + MAC_LENGTH) {
+            log.info("Malformed compact token.");
+            return Optional.empty();
+        }
+        int signedLength = bytes.length - MAC_LENGTH;
+        Mac tokenMac = mac.get();
+        tokenMac.update(bytes, 0, signedLength);
+        if (!MessageDigest.isEqual(tokenMac.doFinal(), Arrays.copyOfRange(bytes, signedLength, bytes.length))) {
+            log.info("Invalid compact token signature.");
+            return Optional.empty();
+        }
+        ByteBuffer token = ByteBuffer.wrap(bytes, 1, signedLength - 1);
+        long expiry = token.getLong();
+        int mask = token.getInt();
+        if (expiry * 1000 <= System.currentTimeMillis()) {
+            log.info("Expired compact token.");
+            return Optional.empty();
+        }
+        if (mask < 0 || mask >= AUTHORITIES_BY_MASK.size()) {
+            log.info("Unsupported compact token authorities.");
+            return Optional.empty();
+        }
+        String login = new String(bytes, HEADER_LENGTH, signedLength - HEADER_LENGTH, StandardCharsets.UTF_8);
+
+        User principal = new User(login, "", AUTHORITIES_BY_MASK.get(mask));
+        return Optional.of(new UsernamePasswordAuthenticationToken(principal, authToken, principal.getAuthorities()));
+    }
+}
@@ -9,13 +9,16 @@ public class JWTConfigurer extends SecurityConfigurerAdapter<DefaultSecurityFilt
 
     private TokenProvider tokenProvider;
 
-    public JWTConfigurer(TokenProvider tokenProvider) {
+    private CompactTokenProvider compactTokenProvider;
+
+    public JWTConfigurer(TokenProvider tokenProvider, CompactTokenProvider compactTokenProvider) {
         this.tokenProvider = tokenProvider;
+        this.compactTokenProvider = compactTokenProvider;
     }
 
     @Override
     public void configure(HttpSecurity http) throws Exception {
-        JWTFilter customFilter = new JWTFilter(tokenProvider);
+        JWTFilter customFilter = new JWTFilter(tokenProvider, compactTokenProvider);
         http.addFilterBefore(customFilter, UsernamePasswordAuthenticationFilter.class);
     }
 }
@@ -11,6 +11,7 @@ import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * Filters incoming requests and installs a Spring Security principal if a header corresponding to a valid user is
@@ -22,8 +23,15 @@ public class JWTFilter extends GenericFilterBean {
 
     private TokenProvider tokenProvider;
 
+    private CompactTokenProvider compactTokenProvider;
+
     public JWTFilter(TokenProvider tokenProvider) {
+        this(tokenProvider, null);
+    }
+
+    public JWTFilter(TokenProvider tokenProvider, CompactTokenProvider compactTokenProvider) {
         this.tokenProvider = tokenProvider;
+        this.compactTokenProvider = compactTokenProvider;
     }
 
     @Override
@@ -31,9 +39,11 @@ public class JWTFilter extends GenericFilterBean {
         throws IOException, ServletException {
         HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
         String jwt = resolveToken(httpServletRequest);
-        if (StringUtils.hasText(jwt) && this.tokenProvider.validateToken(jwt)) {
-            Authentication authentication = this.tokenProvider.getAuthentication(jwt);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (StringUtils.hasText(jwt)) {
+            Optional<Authentication> authentication = this.compactTokenProvider != null && CompactTokenProvider.isCompactToken(jwt)
+                ? this.compactTokenProvider.resolveAuthentication(jwt)
+                : this.tokenProvider.resolveAuthentication(jwt);
+            authentication.ifPresent(resolved -> SecurityContextHolder.getContext().setAuthentication(resolved));
         }
         filterChain.doFilter(servletRequest, servletResponse);
     }
@@ -1,8 +1,15 @@
 package com.tecforte.blog.security.jwt;
 
+import com.tecforte.blog.security.GrantedAuthorities;
+
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -11,7 +18,6 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -28,6 +34,31 @@ public class TokenProvider implements InitializingBean {
 
     private static final String AUTHORITIES_KEY = "auth";
 
+    /**
+     * Most verified tokens kept in memory, about one per active session.
+     */
+    private static final int VERIFIED_TOKENS_MAX_SIZE = 10000;
+
+    /**
+     * Least time between two purges of the expired tokens, done when the cache is full.
+     */
+    private static final long VERIFIED_TOKENS_PURGE_INTERVAL = 60000;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    /**
+     * The tokens already verified, by SHA-256 hash, until they expire.
+     */
+    private final ConcurrentMap<ByteBuffer, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    private volatile long nextPurge;
+
     private Key key;
 
     private long tokenValidityInMilliseconds;
@@ -86,21 +117,40 @@ public class TokenProvider implements InitializingBean {
             .setSigningKey(key)
             .parseClaimsJws(token)
             .getBody();
-
-        Collection<? extends GrantedAuthority> authorities =
-            Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
-
-        User principal = new User(claims.getSubject(), "", authorities);
-
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        return verified(token, claims).toAuthentication();
     }
 
     public boolean validateToken(String authToken) {
+        return resolveAuthentication(authToken).isPresent();
+    }
+
+    /**
+     * Verify a token and get its authentication, in a single parse.
+     * <p>
+     * Verified tokens are cached until they expire, so the following requests sending the same token skip the
+     * signature check and the parsing. The cache is keyed by the SHA-256 hash of the tokens, and bounded to
+     * {@value #VERIFIED_TOKENS_MAX_SIZE} tokens.
+     *
+     * @param authToken the token sent by the client.
+     * @return a new authentication, or empty if the token is invalid or expired.
+     */
+    public Optional<Authentication> resolveAuthentication(String authToken) {
+        ByteBuffer cacheKey = hash(authToken);
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verifiedTokens.get(cacheKey);
+        if (cached != null) {
+            if (now < cached.expiresAt && cached.token.equals(authToken)) {
+                return Optional.of(cached.toAuthentication());
+            }
+            verifiedTokens.remove(cacheKey, cached);
+        }
         try {
-            Jwts.parser().setSigningKey(key).parseClaimsJws(authToken);
-            return true;
+            Claims claims = Jwts.parser().setSigningKey(key).parseClaimsJws(authToken).getBody();
+            VerifiedToken verified = verified(authToken, claims);
+            if (claims.getExpiration() != null) {
+                cache(cacheKey, verified, now);
+            }
+            return Optional.of(verified.toAuthentication());
         } catch (io.jsonwebtoken.security.SecurityException | MalformedJwtException e) {
             log.info("Invalid JWT signature.");
             log.trace("Invalid JWT signature trace: {}", e);
@@ -114,6 +164,59 @@ public class TokenProvider implements InitializingBean {
             log.info("JWT token compact of handler are invalid.");
             log.trace("JWT token compact of handler are invalid trace: {}", e);
         }
-        return false;
+        return Optional.empty();
+    }
+
+    private VerifiedToken verified(String token, Claims claims) {
+        List<GrantedAuthority> authorities = GrantedAuthorities.of(claims.get(AUTHORITIES_KEY).toString());
+
+        User principal = new User(claims.getSubject(), "", authorities);
+
+        long expiresAt = claims.getExpiration() == null ? Long.MAX_VALUE : claims.getExpiration().getTime();
+        return new VerifiedToken(token, principal, expiresAt);
+    }
+
+    private void cache(ByteBuffer cacheKey, VerifiedToken verified, long now) {
+        if (verifiedTokens.size() >= VERIFIED_TOKENS_MAX_SIZE) {
+            if (now >= nextPurge) {
+                nextPurge = now + VERIFIED_TOKENS_PURGE_INTERVAL;
+                verifiedTokens.values().removeIf(token -> token.expiresAt <= now);
+            }
+            Iterator<ByteBuffer> keys = verifiedTokens.keySet().iterator();
+            while (verifiedTokens.size() >= VERIFIED_TOKENS_MAX_SIZE && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        verifiedTokens.put(cacheKey, verified);
+    }
+
+    private static ByteBuffer hash(String token) {
+        return ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * A verified token, and the principal it authenticates.
+     */
+    private static final class VerifiedToken {
+
+        private final String token;
+
+        private final User principal;
+
+        private final long expiresAt;
+
+        private VerifiedToken(String token, User principal, long expiresAt) {
+            this.token = token;
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * A new authentication each time, as an {@link Authentication} is mutable and must not be shared between requests.
+         */
+        private Authentication toAuthentication() {
+            return new UsernamePasswordAuthenticationToken(principal, token, principal.getAuthorities());
+        }
     }
 }
@@ -1,19 +1,25 @@
 package com.tecforte.blog.service;
 
 import io.github.jhipster.config.JHipsterProperties;
+import com.tecforte.blog.config.ApplicationProperties;
 import com.tecforte.blog.config.audit.AuditEventConverter;
 import com.tecforte.blog.repository.PersistenceAuditEventRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -33,28 +39,51 @@ public class AuditEventService {
 
     private final AuditEventConverter auditEventConverter;
 
+    private final ApplicationProperties applicationProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
     public AuditEventService(
         PersistenceAuditEventRepository persistenceAuditEventRepository,
-        AuditEventConverter auditEventConverter, JHipsterProperties jhipsterProperties) {
+        AuditEventConverter auditEventConverter, JHipsterProperties jhipsterProperties,
+        ApplicationProperties applicationProperties, PlatformTransactionManager transactionManager) {
 
         this.persistenceAuditEventRepository = persistenceAuditEventRepository;
         this.auditEventConverter = auditEventConverter;
         this.jHipsterProperties = jhipsterProperties;
+        this.applicationProperties = applicationProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
     * Old audit events should be automatically deleted after 30 days.
     *
     * This is scheduled to get fired at 12:00 (am).
+    * <p>
+    * The expired events are deleted in chunks, their data rows first, each chunk in a transaction of its own unless
+    * called within one, so that the purge neither loads the events nor holds locks on the whole table.
     */
     @Scheduled(cron = "0 0 12 * * ?")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removeOldAuditEvents() {
-        persistenceAuditEventRepository
-            .findByAuditEventDateBefore(Instant.now().minus(jHipsterProperties.getAuditEvents().getRetentionPeriod(), ChronoUnit.DAYS))
-            .forEach(auditEvent -> {
-                log.debug("Deleting audit data {}", auditEvent);
-                persistenceAuditEventRepository.delete(auditEvent);
+        Instant before = Instant.now().minus(jHipsterProperties.getAuditEvents().getRetentionPeriod(), ChronoUnit.DAYS);
+        int chunkSize = applicationProperties.getAuditEvents().getPurgeChunkSize();
+        long start = System.currentTimeMillis();
+
+        long deleted = 0;
+        List<Long> ids;
+        do {
+            ids = transactionTemplate.execute(status -> {
+                List<Long> chunk = persistenceAuditEventRepository.findIdsByAuditEventDateBefore(before, PageRequest.of(0, chunkSize));
+                if (!chunk.isEmpty()) {
+                    persistenceAuditEventRepository.deleteDataByEventIdIn(chunk);
+                    persistenceAuditEventRepository.deleteByIdIn(chunk);
+                }
+                return chunk;
             });
+            deleted += ids.size();
+        } while (ids.size() == chunkSize);
+        log.info("Deleted {} audit events older than {} in {} ms", deleted, before, System.currentTimeMillis() - start);
     }
 
     public Page<AuditEvent> findAll(Pageable pageable) {
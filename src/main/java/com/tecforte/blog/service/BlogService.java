@@ -3,18 +3,29 @@ package com.tecforte.blog.service;
 import com.tecforte.blog.domain.Blog;
 import com.tecforte.blog.repository.BlogRepository;
 import com.tecforte.blog.service.dto.BlogDTO;
-import com.tecforte.blog.service.dto.EntryDTO;
+import com.tecforte.blog.service.dto.BlogMetadataDTO;
+import com.tecforte.blog.service.dto.CleanupPreviewDTO;
+import com.tecforte.blog.service.dto.EntryMatchDTO;
 import com.tecforte.blog.service.mapper.BlogMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -28,14 +39,24 @@ public class BlogService {
 
     private final EntryService entryService;
 
+    private final EntryCleanupService entryCleanupService;
+
     private final BlogRepository blogRepository;
 
     private final BlogMapper blogMapper;
 
-    public BlogService(EntryService entryService, BlogRepository blogRepository, BlogMapper blogMapper) {
+    private final CacheManager cacheManager;
+
+    private final BlogStatsService blogStatsService;
+
+    public BlogService(EntryService entryService, EntryCleanupService entryCleanupService, BlogRepository blogRepository,
+                       BlogMapper blogMapper, CacheManager cacheManager, BlogStatsService blogStatsService) {
         this.entryService = entryService;
+        this.entryCleanupService = entryCleanupService;
         this.blogRepository = blogRepository;
         this.blogMapper = blogMapper;
+        this.cacheManager = cacheManager;
+        this.blogStatsService = blogStatsService;
     }
 
     /**
@@ -48,20 +69,34 @@ public class BlogService {
         log.debug("Request to save Blog : {}", blogDTO);
         Blog blog = blogMapper.toEntity(blogDTO);
         blog = blogRepository.save(blog);
-        return blogMapper.toDto(blog);
+        if (blogDTO.getId() == null) {
+            blogStatsService.initialize(blog.getId());
+        }
+        clearBlogCaches(blog.getId());
+        return withEntryCount(blogMapper.toDto(blog));
     }
 
     /**
-     * Get all the blogs.
+     * Get a page of blogs, in id order, using keyset pagination.
+     * <p>
+     * The cost of a page does not depend on its position, as the query seeks past the last id seen instead of using an offset.
      *
-     * @return the list of entities.
+     * @param afterId the id of the last blog of the previous page, or {@code null} for the first page.
+     * @param ownerLogin only keep the blogs of this user, ignored if {@code null}.
+     * @param positive only keep the blogs of this polarity, ignored if {@code null}.
+     * @param size the size of the page.
+     * @return the page of entities.
      */
     @Transactional(readOnly = true)
-    public List<BlogDTO> findAll() {
-        log.debug("Request to get all Blogs");
-        return blogRepository.findAllWithEagerRelationships().stream()
-            .map(blogMapper::toDto)
-            .collect(Collectors.toCollection(LinkedList::new));
+    public Slice<BlogDTO> findPage(Long afterId, String ownerLogin, Boolean positive, int size) {
+        log.debug("Request to get a page of Blogs after {} for owner {} and positive {}", afterId, ownerLogin, positive);
+        List<Object[]> rows = blogRepository.findPageWithEntryCount(afterId, ownerLogin, positive, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<BlogDTO> content = rows.stream()
+            .limit(size)
+            .map(this::toDtoWithEntryCount)
+            .collect(Collectors.toList());
+        return new SliceImpl<>(content, PageRequest.of(0, size, Sort.by("id")), hasNext);
     }
 
 
@@ -75,7 +110,23 @@ public class BlogService {
     public Optional<BlogDTO> findOne(Long id) {
         log.debug("Request to get Blog : {}", id);
         return blogRepository.findById(id)
-            .map(blogMapper::toDto);
+            .map(blogMapper::toDto)
+            .map(this::withEntryCount);
+    }
+
+    /**
+     * Get the metadata of one blog by id, without loading its entries.
+     * <p>
+     * Served from the {@link BlogRepository#BLOG_METADATA_CACHE} cache, evicted whenever the blog is saved or deleted,
+     * and cleared when the login of a user changes.
+     *
+     * @param id the id of the entity.
+     * @return the metadata.
+     */
+    @Transactional(readOnly = true)
+    public Optional<BlogMetadataDTO> findMetadata(Long id) {
+        log.debug("Request to get Blog metadata : {}", id);
+        return blogRepository.findMetadataById(id);
     }
 
     /**
@@ -85,35 +136,48 @@ public class BlogService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Blog : {}", id);
+        blogStatsService.delete(id);
         blogRepository.deleteById(id);
+        clearBlogCaches(id);
     }
 
-    public void cleanAllBlogs(String[] listKeywords) {
-        final Page<EntryDTO> entryServiceAll = entryService.findAll(Pageable.unpaged());
-        entryServiceAll.forEach(entryDTO -> {
-            final String title = entryDTO.getTitle();
-            final String content = entryDTO.getContent();
-            for (String kw : listKeywords) {
-                if (title.toLowerCase().contains(kw.toLowerCase()) || content.toLowerCase().contains(kw.toLowerCase())) {
-                    entryService.delete(entryDTO.getId());
-                }
-            }
-        });
+    /**
+     * Find the entries that a cleanup would delete, without deleting them, scanning them like
+     * {@link EntryCleanupService#deleteByKeywords(Long, String[], EntryCleanupService.Monitor)}.
+     *
+     * @param blogId the id of the blog to preview, or {@code null} to preview all the blogs.
+     * @param listKeywords the keywords to look for in the entry title and content.
+     * @param matchConsumer called with each matching entry, by one thread at a time, as soon as it is found.
+     * @return the number of matching entries, per keyword and per blog.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CleanupPreviewDTO previewClean(Long blogId, String[] listKeywords, Consumer<EntryMatchDTO> matchConsumer) {
+        log.debug("Request to preview the cleanup of Blog {} with keywords : {}", blogId, Arrays.toString(listKeywords));
+        return entryCleanupService.preview(blogId, listKeywords, matchConsumer);
+    }
+
+    private BlogDTO toDtoWithEntryCount(Object[] row) {
+        BlogDTO blogDTO = blogMapper.toDto((Blog) row[0]);
+        blogDTO.setEntryCount(((Number) row[1]).intValue());
+        return blogDTO;
+    }
+
+    private BlogDTO withEntryCount(BlogDTO blogDTO) {
+        blogDTO.setEntryCount((int) entryService.countByBlogId(blogDTO.getId()));
+        return blogDTO;
     }
 
-    public void cleanBlog(Long blogId, String[] listKeywords) {
-        final Page<EntryDTO> entryServiceAll = entryService.findAll(Pageable.unpaged());
-        entryServiceAll.forEach(entryDTO -> {
-            if (entryDTO.getBlogId().equals(blogId)) {
-                final String title = entryDTO.getTitle();
-                final String content = entryDTO.getContent();
-
-                for (String kw : listKeywords) {
-                    if (title.toLowerCase().contains(kw.toLowerCase()) || content.toLowerCase().contains(kw.toLowerCase())) {
-                        entryService.delete(entryDTO.getId());
-                    }
+    private void clearBlogCaches(Long id) {
+        Cache blogMetadataCache = Objects.requireNonNull(cacheManager.getCache(BlogRepository.BLOG_METADATA_CACHE));
+        blogMetadataCache.evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // a concurrent reader may have cached the old row before this transaction commits
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    blogMetadataCache.evict(id);
                 }
-            }
-        });
+            });
+        }
     }
 }
@@ -0,0 +1,162 @@
+package com.tecforte.blog.service;
+
+import com.tecforte.blog.domain.BlogEmojiStats;
+import com.tecforte.blog.domain.enumeration.Emoji;
+import com.tecforte.blog.repository.BlogEmojiStatsRepository;
+import com.tecforte.blog.repository.BlogRepository;
+import com.tecforte.blog.repository.EntryRepository;
+import com.tecforte.blog.service.dto.BlogStatsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Service maintaining the {@link BlogEmojiStats}, the number of entries of each blog per emoji.
+ * <p>
+ * The counters are updated in the transaction changing the entries, so they are exactly as consistent as the entries
+ * themselves, and a blog's statistics are read from its few counter rows, whatever its number of entries.
+ * Callers lock the entries whose blog or emoji changes before reading their previous blog and emoji, see
+ * {@link EntryRepository#lockBlogIdAndEmojiByIdIn(java.util.Collection)}, and the counters are updated in key order,
+ * so that concurrent transactions cannot deadlock on them.
+ */
+@Service
+@Transactional
+public class BlogStatsService {
+
+    private final Logger log = LoggerFactory.getLogger(BlogStatsService.class);
+
+    private final BlogEmojiStatsRepository blogEmojiStatsRepository;
+
+    private final BlogRepository blogRepository;
+
+    private final EntryRepository entryRepository;
+
+    public BlogStatsService(BlogEmojiStatsRepository blogEmojiStatsRepository, BlogRepository blogRepository,
+                            EntryRepository entryRepository) {
+        this.blogEmojiStatsRepository = blogEmojiStatsRepository;
+        this.blogRepository = blogRepository;
+        this.entryRepository = entryRepository;
+    }
+
+    /**
+     * Get the statistics of a blog.
+     *
+     * @param blogId the id of the blog.
+     * @return the statistics, or empty if the blog does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<BlogStatsDTO> findOne(Long blogId) {
+        log.debug("Request to get the statistics of Blog : {}", blogId);
+        List<BlogEmojiStats> rows = blogEmojiStatsRepository.findAllByBlogId(blogId);
+        if (rows.isEmpty() && !blogRepository.existsById(blogId)) {
+            return Optional.empty();
+        }
+        Map<Emoji, Long> counts = new EnumMap<>(Emoji.class);
+        for (Emoji emoji : Emoji.values()) {
+            counts.put(emoji, 0L);
+        }
+        long total = 0;
+        for (BlogEmojiStats row : rows) {
+            counts.put(row.getEmoji(), row.getEntryCount());
+            total += row.getEntryCount();
+        }
+        return Optional.of(new BlogStatsDTO(blogId, total, Collections.unmodifiableMap(counts)));
+    }
+
+    /**
+     * Create the counters of a new blog, all at zero.
+     *
+     * @param blogId the id of the blog.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void initialize(Long blogId) {
+        List<BlogEmojiStats> rows = new ArrayList<>();
+        for (Emoji emoji : Emoji.values()) {
+            rows.add(new BlogEmojiStats(blogId, emoji, 0L));
+        }
+        blogEmojiStatsRepository.saveAll(rows);
+    }
+
+    /**
+     * Apply the changes made to some entries to the counters, in the caller's transaction.
+     * <p>
+     * A missing counter, for a blog that was not created through {@link BlogService}, is created from the entries
+     * of the blog as they are in the current transaction. When a concurrent transaction creates it first, from
+     * the entries it sees, without the changes of the current one, these changes are added to it instead.
+     *
+     * @param changes the changes to apply.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Changes changes) {
+        for (Map.Entry<BlogEmojiStats.Key, Long> change : changes.deltas.entrySet()) {
+            BlogEmojiStats.Key key = change.getKey();
+            long delta = change.getValue();
+            if (delta == 0 || blogEmojiStatsRepository.increment(key.getBlogId(), key.getEmoji(), delta) > 0) {
+                continue;
+            }
+            long count = entryRepository.countByBlogIdAndEmoji(key.getBlogId(), key.getEmoji());
+            log.debug("Creating the missing counter {} with {} entries", key, count);
+            if (blogEmojiStatsRepository.insertIfAbsent(key.getBlogId(), key.getEmoji(), count) == 0) {
+                blogEmojiStatsRepository.increment(key.getBlogId(), key.getEmoji(), delta);
+            }
+        }
+    }
+
+    /**
+     * Delete the counters of a blog, before the blog itself.
+     *
+     * @param blogId the id of the blog.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void delete(Long blogId) {
+        blogEmojiStatsRepository.deleteByBlogId(blogId);
+    }
+
+    /**
+     * The net changes of the counters, collected while entries are saved and deleted.
+     * Entries without a blog are not counted.
+     */
+    public static final class Changes {
+
+        private final SortedMap<BlogEmojiStats.Key, Long> deltas = new TreeMap<>();
+
+        /**
+         * Count an entry added to a blog, or moved to it, or given this emoji.
+         */
+        public Changes add(Long blogId, Emoji emoji) {
+            return change(blogId, emoji, 1);
+        }
+
+        /**
+         * Count an entry removed from a blog, or moved out of it, or given another emoji.
+         */
+        public Changes remove(Long blogId, Emoji emoji) {
+            return change(blogId, emoji, -1);
+        }
+
+        private Changes change(Long blogId, Emoji emoji, long delta) {
+            if (blogId != null && emoji != null) {
+                deltas.merge(new BlogEmojiStats.Key(blogId, emoji), delta, Long::sum);
+            }
+            return this;
+        }
+
+        /**
+         * @return the net change of each counter, in key order, zero when an entry was saved without changes.
+         */
+        public SortedMap<BlogEmojiStats.Key, Long> getDeltas() {
+            return Collections.unmodifiableSortedMap(deltas);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.tecforte.blog.service;
+
+import com.tecforte.blog.service.dto.CleanupJobDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Service running blog cleanups as background jobs on the {@code cleanupJobExecutor}.
+ * <p>
+ * A job runs a {@link EntryCleanupService} scan, where each chunk is deleted and committed in its own transaction,
+ * so a job reports its progress as it goes, can be cancelled between two chunks, and keeps the work already
+ * committed if it is interrupted. Jobs are tracked in memory, and forgotten {@link #RETENTION} after they are over.
+ */
+@Service
+public class CleanupJobService {
+
+    /**
+     * How long a finished job can still be looked up.
+     */
+    static final Duration RETENTION = Duration.ofHours(1);
+
+    private final Logger log = LoggerFactory.getLogger(CleanupJobService.class);
+
+    private final Map<String, CleanupJob> jobs = new ConcurrentHashMap<>();
+
+    private final EntryCleanupService entryCleanupService;
+
+    private final Executor cleanupJobExecutor;
+
+    public CleanupJobService(EntryCleanupService entryCleanupService, @Qualifier("cleanupJobExecutor") Executor cleanupJobExecutor) {
+        this.entryCleanupService = entryCleanupService;
+        this.cleanupJobExecutor = cleanupJobExecutor;
+    }
+
+    /**
+     * Start a job deleting the entries whose title or content contains any of the keywords, ignoring case.
+     *
+     * @param blogId the id of the blog to clean, or {@code null} to clean all the blogs.
+     * @param keywords the keywords to look for, blank ones are ignored.
+     * @return the queued job.
+     * @throws TaskRejectedException if too many jobs are already queued.
+     */
+    public CleanupJobDTO submit(Long blogId, String[] keywords) {
+        log.debug("Request to start a cleanup job for Blog {} with keywords : {}", blogId, Arrays.toString(keywords));
+        CleanupJob job = new CleanupJob(UUID.randomUUID().toString(), blogId, Arrays.asList(keywords));
+        jobs.put(job.id, job);
+        try {
+            cleanupJobExecutor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            throw e;
+        }
+        return job.toDto();
+    }
+
+    /**
+     * Get a job by id.
+     *
+     * @param id the id of the job.
+     * @return the job, if it is still tracked.
+     */
+    public Optional<CleanupJobDTO> findOne(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(CleanupJob::toDto);
+    }
+
+    /**
+     * Get all the tracked jobs, most recent first.
+     *
+     * @return the list of jobs.
+     */
+    public List<CleanupJobDTO> findAll() {
+        return jobs.values().stream()
+            .map(CleanupJob::toDto)
+            .sorted(Comparator.comparing(CleanupJobDTO::getCreatedDate).reversed())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Cancel a job: it stops before its next chunk, the chunks already committed stay deleted.
+     *
+     * @param id the id of the job.
+     * @return the job, if it is still tracked.
+     */
+    public Optional<CleanupJobDTO> cancel(String id) {
+        log.debug("Request to cancel cleanup job : {}", id);
+        return Optional.ofNullable(jobs.get(id))
+            .map(job -> {
+                job.cancelRequested = true;
+                return job.toDto();
+            });
+    }
+
+    /**
+     * Forget the jobs that have been over for longer than {@link #RETENTION}.
+     * <p>
+     * This is scheduled to get fired every 10 minutes.
+     */
+    @Scheduled(fixedDelay = 600000)
+    public void removeFinishedJobs() {
+        Instant limit = Instant.now().minus(RETENTION);
+        jobs.values().removeIf(job -> job.finishedDate != null && job.finishedDate.isBefore(limit));
+    }
+
+    private void run(CleanupJob job) {
+        if (job.cancelRequested) {
+            job.finish(CleanupJobDTO.Status.CANCELLED, null);
+            return;
+        }
+        job.status = CleanupJobDTO.Status.RUNNING;
+        job.startedDate = Instant.now();
+        log.debug("Starting cleanup job {}", job.id);
+        try {
+            entryCleanupService.deleteByKeywords(job.blogId, job.keywords.toArray(new String[0]), job);
+            if (job.cancelRequested) {
+                job.finish(CleanupJobDTO.Status.CANCELLED, null);
+                log.info("Cleanup job {} cancelled after deleting {} entries", job.id, job.deleted.get());
+                return;
+            }
+            job.finish(CleanupJobDTO.Status.COMPLETED, null);
+            log.info("Cleanup job {} completed, {} entries scanned, {} deleted", job.id, job.scanned.get(), job.deleted.get());
+        } catch (RuntimeException e) {
+            job.finish(CleanupJobDTO.Status.FAILED, e.getMessage());
+            log.error("Cleanup job {} failed after deleting {} entries", job.id, job.deleted.get(), e);
+        }
+    }
+
+    /**
+     * The live state of a job, written by the thread running it and read by the requests looking it up.
+     */
+    private static final class CleanupJob implements EntryCleanupService.Monitor {
+
+        private final String id;
+
+        private final Long blogId;
+
+        private final List<String> keywords;
+
+        private final Instant createdDate = Instant.now();
+
+        private final AtomicLong scanned = new AtomicLong();
+
+        private final AtomicLong deleted = new AtomicLong();
+
+        private volatile CleanupJobDTO.Status status = CleanupJobDTO.Status.QUEUED;
+
+        private volatile boolean cancelRequested;
+
+        private volatile Instant startedDate;
+
+        private volatile Instant finishedDate;
+
+        private volatile String error;
+
+        private CleanupJob(String id, Long blogId, List<String> keywords) {
+            this.id = id;
+            this.blogId = blogId;
+            this.keywords = Collections.unmodifiableList(keywords);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelRequested;
+        }
+
+        @Override
+        public void onChunk(EntryService.ChunkResult chunk) {
+            scanned.addAndGet(chunk.getScanned());
+            deleted.addAndGet(chunk.getDeleted());
+        }
+
+        private void finish(CleanupJobDTO.Status status, String error) {
+            this.error = error;
+            this.finishedDate = Instant.now();
+            this.status = status;
+        }
+
+        private CleanupJobDTO toDto() {
+            return new CleanupJobDTO(id, blogId, keywords, status, scanned.get(), deleted.get(),
+                createdDate, startedDate, finishedDate, error);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.tecforte.blog.service;
+
+import com.tecforte.blog.config.ApplicationProperties;
+import com.tecforte.blog.service.dto.CleanupPreviewDTO;
+import com.tecforte.blog.service.dto.EntryMatchDTO;
+import com.tecforte.blog.service.util.KeywordMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Service deleting, or previewing the deletion of, the entries that contain some keywords, scanning the entries in parallel.
+ * <p>
+ * The id range of the entries is split into partitions, scanned concurrently on a pool of
+ * {@code application.cleanup.parallelism} threads shared by all the cleanups. Each partition is read chunk by chunk,
+ * each chunk being matched, deleted and committed in its own transaction.
+ * <p>
+ * The {@link EntryIndexService} is in memory, and only sees the entries written through {@link EntryService} on this
+ * instance: it is only used when {@code application.entry-index.trusted} says there is no other writer. Then, when
+ * it can tell which entries may contain the keywords, only those candidates are read, chunk by chunk, instead of the
+ * whole id range.
+ */
+@Service
+public class EntryCleanupService {
+
+    /**
+     * Smallest id range worth a partition of its own.
+     */
+    private static final long MIN_PARTITION_SPAN = 500;
+
+    /**
+     * Number of candidate entries read per chunk when the index answers.
+     */
+    private static final int CANDIDATE_CHUNK_SIZE = 500;
+
+    private final Logger log = LoggerFactory.getLogger(EntryCleanupService.class);
+
+    private final EntryService entryService;
+
+    private final EntryIndexService entryIndexService;
+
+    private final ExecutorService scanExecutor;
+
+    private final int maxPartitions;
+
+    private final boolean trustIndex;
+
+    public EntryCleanupService(EntryService entryService, EntryIndexService entryIndexService, ApplicationProperties applicationProperties) {
+        this.entryService = entryService;
+        this.entryIndexService = entryIndexService;
+        ApplicationProperties.Cleanup cleanup = applicationProperties.getCleanup();
+        int parallelism = Math.max(1, cleanup.getParallelism());
+        this.scanExecutor = Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("blog-cleanup-"));
+        this.maxPartitions = parallelism * Math.max(1, cleanup.getPartitionsPerThread());
+        this.trustIndex = applicationProperties.getEntryIndex().isTrusted();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scanExecutor.shutdownNow();
+    }
+
+    /**
+     * Delete the entries whose title or content contains at least one of the keywords, ignoring case.
+     *
+     * @param blogId the id of the blog to clean, or {@code null} to clean all the blogs.
+     * @param keywords the keywords to look for, blank ones are ignored.
+     * @param monitor notified of each chunk, and checked for cancellation before each chunk.
+     * @return the number of deleted entries.
+     */
+    public long deleteByKeywords(Long blogId, String[] keywords, Monitor monitor) {
+        log.debug("Request to delete Entries of Blog {} containing keywords : {}", blogId, Arrays.toString(keywords));
+        AtomicLong deleted = new AtomicLong();
+        scan(blogId, EntryService.compileKeywords(keywords), false, new Monitor() {
+            @Override
+            public boolean isCancelled() {
+                return monitor.isCancelled();
+            }
+
+            @Override
+            public void onChunk(EntryService.ChunkResult chunk) {
+                deleted.addAndGet(chunk.getDeleted());
+                monitor.onChunk(chunk);
+            }
+        });
+        return deleted.get();
+    }
+
+    /**
+     * Find the entries that {@link #deleteByKeywords(Long, String[], Monitor)} would delete, without deleting them.
+     * <p>
+     * The entries are scanned exactly like a real cleanup, and each matching entry is handed over as soon as its
+     * chunk has been scanned, so that only the statistics are kept in memory.
+     *
+     * @param blogId the id of the blog to preview, or {@code null} to preview all the blogs.
+     * @param keywords the keywords to look for, blank ones are ignored.
+     * @param matchConsumer called with each matching entry, by one thread at a time, in no particular order.
+     * @return the number of matching entries, per keyword and per blog.
+     */
+    public CleanupPreviewDTO preview(Long blogId, String[] keywords, Consumer<EntryMatchDTO> matchConsumer) {
+        log.debug("Request to preview the deletion of Entries of Blog {} containing keywords : {}", blogId, Arrays.toString(keywords));
+        KeywordMatcher matcher = EntryService.compileKeywords(keywords);
+        AtomicLong scanned = new AtomicLong();
+        AtomicLong matched = new AtomicLong();
+        Map<String, LongAdder> keywordHits = new ConcurrentHashMap<>();
+        Map<Long, LongAdder> blogTotals = new ConcurrentHashMap<>();
+        scan(blogId, matcher, true, new Monitor() {
+            @Override
+            public void onChunk(EntryService.ChunkResult chunk) {
+                scanned.addAndGet(chunk.getScanned());
+                matched.addAndGet(chunk.getMatched());
+                for (EntryMatchDTO match : chunk.getMatches()) {
+                    match.getKeywords().forEach(keyword -> keywordHits.computeIfAbsent(keyword, k -> new LongAdder()).increment());
+                    if (match.getBlogId() != null) {
+                        blogTotals.computeIfAbsent(match.getBlogId(), id -> new LongAdder()).increment();
+                    }
+                }
+                synchronized (matchConsumer) {
+                    chunk.getMatches().forEach(matchConsumer);
+                }
+            }
+        });
+        Map<String, Long> hits = new LinkedHashMap<>();
+        for (int i = 0; i < matcher.size(); i++) {
+            LongAdder count = keywordHits.get(matcher.keyword(i));
+            hits.put(matcher.keyword(i), count == null ? 0 : count.sum());
+        }
+        Map<Long, Long> totals = new TreeMap<>();
+        blogTotals.forEach((id, count) -> totals.put(id, count.sum()));
+        return new CleanupPreviewDTO(blogId, scanned.get(), matched.get(), hits, totals);
+    }
+
+    private void scan(Long blogId, KeywordMatcher matcher, boolean dryRun, Monitor monitor) {
+        if (matcher.isEmpty()) {
+            return;
+        }
+        Optional<long[]> candidates = trustIndex ? entryIndexService.findContainingAnyKeyword(matcher) : Optional.empty();
+        if (candidates.isPresent()) {
+            scanCandidates(blogId, candidates.get(), matcher, dryRun, monitor);
+            return;
+        }
+        Optional<long[]> range = entryService.findIdRange(blogId);
+        if (!range.isPresent()) {
+            return;
+        }
+        long[] bounds = partition(range.get()[0], range.get()[1]);
+        AtomicBoolean failed = new AtomicBoolean();
+        List<CompletableFuture<Void>> partitions = new ArrayList<>(bounds.length - 1);
+        for (int i = 0; i < bounds.length - 1; i++) {
+            long from = bounds[i];
+            long to = bounds[i + 1] - 1;
+            partitions.add(CompletableFuture.runAsync(() -> {
+                try {
+                    scanPartition(blogId, from, to, matcher, dryRun, monitor, failed);
+                } catch (RuntimeException e) {
+                    failed.set(true);
+                    throw e;
+                }
+            }, scanExecutor));
+        }
+        try {
+            CompletableFuture.allOf(partitions.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        log.debug("Scanned the Entries of Blog {} in {} partitions", blogId, partitions.size());
+    }
+
+    private void scanCandidates(Long blogId, long[] ids, KeywordMatcher matcher, boolean dryRun, Monitor monitor) {
+        log.debug("Checking {} candidate Entries of Blog {} found in the index", ids.length, blogId);
+        for (int from = 0; from < ids.length && !monitor.isCancelled(); from += CANDIDATE_CHUNK_SIZE) {
+            int to = Math.min(from + CANDIDATE_CHUNK_SIZE, ids.length);
+            List<Long> chunk = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                chunk.add(ids[i]);
+            }
+            monitor.onChunk(entryService.scanEntries(blogId, chunk, matcher, dryRun));
+        }
+    }
+
+    /**
+     * Split {@code [min, max]} into contiguous ranges.
+     *
+     * @return the first id of each range, followed by {@code max + 1}.
+     */
+    long[] partition(long min, long max) {
+        long span = max - min + 1;
+        int count = (int) Math.max(1, Math.min(maxPartitions, span / MIN_PARTITION_SPAN));
+        long step = span / count;
+        long[] bounds = new long[count + 1];
+        for (int i = 0; i < count; i++) {
+            bounds[i] = min + i * step;
+        }
+        bounds[count] = max + 1;
+        return bounds;
+    }
+
+    private void scanPartition(Long blogId, long from, long to, KeywordMatcher matcher, boolean dryRun, Monitor monitor,
+                               AtomicBoolean failed) {
+        Long afterId = from - 1;
+        boolean over = false;
+        while (!over && !failed.get() && !monitor.isCancelled()) {
+            EntryService.ChunkResult chunk = entryService.scanChunk(blogId, afterId, to, matcher, dryRun);
+            monitor.onChunk(chunk);
+            afterId = chunk.getLastId();
+            over = chunk.isLast();
+        }
+    }
+
+    /**
+     * Follows a cleanup as it goes. Called from the scanning threads, so implementations must be thread-safe.
+     */
+    public interface Monitor {
+
+        Monitor NONE = new Monitor() {
+        };
+
+        /**
+         * @return {@code true} to stop the cleanup before the next chunk.
+         */
+        default boolean isCancelled() {
+            return false;
+        }
+
+        /**
+         * Called once a chunk has been committed.
+         *
+         * @param chunk the progress made on the chunk.
+         */
+        default void onChunk(EntryService.ChunkResult chunk) {
+        }
+    }
+}
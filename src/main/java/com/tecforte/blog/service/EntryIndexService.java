@@ -0,0 +1,373 @@
+package com.tecforte.blog.service;
+
+import com.carrotsearch.hppc.LongHashSet;
+import com.tecforte.blog.domain.Entry;
+import com.tecforte.blog.repository.EntryRepository;
+import com.tecforte.blog.service.util.KeywordMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Service maintaining an in-memory inverted index of the entries: each term of their title and content, lower-cased,
+ * maps to the ids of the entries containing it.
+ * <p>
+ * A term is a maximal run of letters and digits. The index is rebuilt in the background at startup, then kept up to
+ * date by {@link EntryService} as entries are saved and deleted, once their transaction is committed. Until the
+ * first build is over, it answers nothing and callers fall back to scanning the entries.
+ * <p>
+ * Only the posting lists are kept: the terms of an entry are not, and {@link EntryService} hands over the previous
+ * title and content of the entries it changes, to take them out of the posting lists of their former terms.
+ */
+@Service
+public class EntryIndexService {
+
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(EntryIndexService.class);
+
+    private final EntryRepository entryRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Executor taskExecutor;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The posting list of each term. Guarded by {@link #lock}.
+     */
+    private final Map<String, Posting> postings = new HashMap<>();
+
+    /**
+     * The entries saved or deleted while a rebuild is running, which the rebuild must not overwrite. Guarded by {@link #lock}.
+     */
+    private LongHashSet changedDuringRebuild;
+
+    private volatile boolean ready;
+
+    public EntryIndexService(EntryRepository entryRepository, PlatformTransactionManager transactionManager,
+                             @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.entryRepository = entryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        taskExecutor.execute(this::rebuild);
+    }
+
+    /**
+     * Rebuild the index from the database, reading the entries chunk by chunk. The index is unavailable meanwhile.
+     */
+    public void rebuild() {
+        log.debug("Rebuilding the entry index");
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            postings.clear();
+            changedDuringRebuild = new LongHashSet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            long start = System.currentTimeMillis();
+            long indexed = 0;
+            Long lastId = null;
+            List<Entry> chunk;
+            do {
+                Long afterId = lastId;
+                chunk = readOnlyTransaction.execute(status -> entryRepository.findChunkAfter(null, afterId, null, REBUILD_CHUNK_SIZE));
+                lock.writeLock().lock();
+                try {
+                    for (Entry entry : chunk) {
+                        if (!changedDuringRebuild.contains(entry.getId())) {
+                            add(entry.getId(), entry.getTitle(), entry.getContent());
+                            indexed++;
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (!chunk.isEmpty()) {
+                    lastId = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == REBUILD_CHUNK_SIZE);
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+                ready = true;
+                log.info("Indexed {} entries and {} terms in {} ms", indexed, postings.size(), System.currentTimeMillis() - start);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not build the entry index, searches fall back to scanning the entries", e);
+        }
+    }
+
+    /**
+     * @return {@code true} once the index has been built.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Index a new entry once the current transaction, if any, is committed.
+     *
+     * @param id the id of the entry.
+     * @param title the title of the entry.
+     * @param content the content of the entry.
+     */
+    public void indexAfterCommit(long id, String title, String content) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                add(id, title, content);
+                markChanged(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Index a changed entry, replacing the terms of its previous title and content, once the current transaction,
+     * if any, is committed.
+     *
+     * @param id the id of the entry.
+     * @param previousTitle the title of the entry before the change.
+     * @param previousContent the content of the entry before the change.
+     * @param title the title of the entry.
+     * @param content the content of the entry.
+     */
+    public void reindexAfterCommit(long id, String previousTitle, String previousContent, String title, String content) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(id, previousTitle, previousContent);
+                add(id, title, content);
+                markChanged(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Remove entries from the index once the current transaction, if any, is committed.
+     *
+     * @param entries the deleted entries, with the title and content they were indexed with.
+     */
+    public void removeAfterCommit(Collection<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        long[] ids = new long[entries.size()];
+        String[] titles = new String[ids.length];
+        String[] contents = new String[ids.length];
+        int i = 0;
+        for (Entry entry : entries) {
+            ids[i] = entry.getId();
+            titles[i] = entry.getTitle();
+            contents[i++] = entry.getContent();
+        }
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                for (int j = 0; j < ids.length; j++) {
+                    remove(ids[j], titles[j], contents[j]);
+                    markChanged(ids[j]);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Find the entries containing any of the words, as whole terms, ignoring case.
+     *
+     * @param words the words to look for, split into terms like the entries.
+     * @return the ids of the entries, in descending order, or empty if the index is not ready.
+     */
+    public Optional<long[]> findContainingAnyWord(Collection<String> words) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        for (String word : words) {
+            tokenize(word, terms);
+        }
+        lock.readLock().lock();
+        try {
+            LongHashSet ids = new LongHashSet();
+            for (String term : terms) {
+                Posting posting = postings.get(term);
+                if (posting != null) {
+                    ids.addAll(posting.ids);
+                }
+            }
+            return Optional.of(sortedDescending(ids));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the entries whose title or content may contain one of the keywords, the way {@link KeywordMatcher} does.
+     * <p>
+     * A keyword made only of letters and digits can only occur inside a term, so the entries containing it are the
+     * entries with a term containing it: only the terms are scanned, not the entries. Keywords with any other
+     * character can span several terms, and cannot be answered by the index.
+     *
+     * @param keywords the keywords, already compiled.
+     * @return the ids of the entries, in ascending order, or empty if the index is not ready or cannot answer.
+     */
+    public Optional<long[]> findContainingAnyKeyword(KeywordMatcher keywords) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        for (int i = 0; i < keywords.size(); i++) {
+            if (!isTerm(keywords.keyword(i))) {
+                return Optional.empty();
+            }
+        }
+        lock.readLock().lock();
+        try {
+            LongHashSet ids = new LongHashSet();
+            for (Posting posting : postings.values()) {
+                if (keywords.matches(posting.term)) {
+                    ids.addAll(posting.ids);
+                }
+            }
+            long[] sorted = ids.toArray();
+            Arrays.sort(sorted);
+            return Optional.of(sorted);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(long id, String title, String content) {
+        Set<String> terms = new LinkedHashSet<>();
+        tokenize(title, terms);
+        tokenize(content, terms);
+        for (String term : terms) {
+            postings.computeIfAbsent(term, Posting::new).ids.add(id);
+        }
+    }
+
+    private void remove(long id, String title, String content) {
+        Set<String> terms = new LinkedHashSet<>();
+        tokenize(title, terms);
+        tokenize(content, terms);
+        for (String term : terms) {
+            Posting posting = postings.get(term);
+            if (posting != null) {
+                posting.ids.remove(id);
+                if (posting.ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private void markChanged(long id) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(id);
+        }
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private static long[] sortedDescending(LongHashSet ids) {
+        long[] sorted = new long[ids.size()];
+        int i = sorted.length;
+        long[] ascending = ids.toArray();
+        Arrays.sort(ascending);
+        for (long id : ascending) {
+            sorted[--i] = id;
+        }
+        return sorted;
+    }
+
+    /**
+     * Split a text into lower-cased terms, the maximal runs of letters and digits.
+     */
+    static void tokenize(String text, Set<String> terms) {
+        if (text == null) {
+            return;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inTerm = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inTerm && start < 0) {
+                start = i;
+            } else if (!inTerm && start >= 0) {
+                char[] term = new char[i - start];
+                for (int j = 0; j < term.length; j++) {
+                    term[j] = Character.toLowerCase(text.charAt(start + j));
+                }
+                terms.add(new String(term));
+                start = -1;
+            }
+        }
+    }
+
+    private static boolean isTerm(String keyword) {
+        for (int i = 0; i < keyword.length(); i++) {
+            if (!Character.isLetterOrDigit(keyword.charAt(i))) {
+                return false;
+            }
+        }
+        return !keyword.isEmpty();
+    }
+
+    /**
+     * A term and the ids of the entries containing it.
+     */
+    private static final class Posting {
+
+        private final String term;
+
+        private final LongHashSet ids = new LongHashSet(4);
+
+        private Posting(String term) {
+            this.term = term;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.tecforte.blog.service;
+
+/**
+ * The content rules an {@link com.tecforte.blog.domain.Entry} must follow, depending on the polarity of its blog.
+ */
+public enum EntryRule {
+
+    POSITIVE_BLOG_EMOJI("invalidEmoji", "Invalid Emoji: not allowed in a positive blog"),
+    POSITIVE_BLOG_TITLE("invalidContent", "Invalid Content: the title has a word not allowed in a positive blog"),
+    POSITIVE_BLOG_CONTENT("invalidContent", "Invalid Content: the content has a word not allowed in a positive blog"),
+    NEGATIVE_BLOG_EMOJI("invalidEmoji", "Invalid Emoji: not allowed in a negative blog"),
+    NEGATIVE_BLOG_TITLE("invalidContent", "Invalid Content: the title has a word not allowed in a negative blog"),
+    NEGATIVE_BLOG_CONTENT("invalidContent", "Invalid Content: the content has a word not allowed in a negative blog");
+
+    private final String errorKey;
+
+    private final String description;
+
+    EntryRule(String errorKey, String description) {
+        this.errorKey = errorKey;
+        this.description = description;
+    }
+
+    public String getErrorKey() {
+        return errorKey;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
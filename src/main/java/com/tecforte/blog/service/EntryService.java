@@ -1,18 +1,49 @@
 package com.tecforte.blog.service;
 
+import com.tecforte.blog.config.ApplicationProperties;
 import com.tecforte.blog.domain.Entry;
+import com.tecforte.blog.domain.enumeration.Emoji;
+import com.tecforte.blog.repository.BlogRepository;
 import com.tecforte.blog.repository.EntryRepository;
+import com.tecforte.blog.service.dto.BlogMetadataDTO;
+import com.tecforte.blog.service.dto.EntryBatchResultDTO;
 import com.tecforte.blog.service.dto.EntryDTO;
+import com.tecforte.blog.service.dto.EntryMatchDTO;
+import com.tecforte.blog.service.dto.EntrySummaryDTO;
 import com.tecforte.blog.service.mapper.EntryMapper;
+import com.tecforte.blog.service.util.KeywordMatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service Implementation for managing {@link Entry}.
@@ -21,30 +52,155 @@ import java.util.Optional;
 @Transactional
 public class EntryService {
 
+    /**
+     * Number of entries loaded per query when scanning the whole table.
+     */
+    private static final int SCAN_CHUNK_SIZE = 500;
+
+    /**
+     * Number of entries inserted per flush, kept equal to {@code hibernate.jdbc.batch_size}.
+     */
+    private static final int INSERT_BATCH_SIZE = 50;
+
     private final Logger log = LoggerFactory.getLogger(EntryService.class);
 
     private final EntryRepository entryRepository;
 
     private final EntryMapper entryMapper;
 
-    public EntryService(EntryRepository entryRepository, EntryMapper entryMapper) {
+    private final BlogRepository blogRepository;
+
+    private final EntryValidationService entryValidationService;
+
+    private final Validator validator;
+
+    private final EntryIndexService entryIndexService;
+
+    private final BlogStatsService blogStatsService;
+
+    private final boolean trustIndex;
+
+    public EntryService(EntryRepository entryRepository, EntryMapper entryMapper, BlogRepository blogRepository,
+                        EntryValidationService entryValidationService, Validator validator, EntryIndexService entryIndexService,
+                        BlogStatsService blogStatsService, ApplicationProperties applicationProperties) {
         this.entryRepository = entryRepository;
         this.entryMapper = entryMapper;
+        this.blogRepository = blogRepository;
+        this.entryValidationService = entryValidationService;
+        this.validator = validator;
+        this.entryIndexService = entryIndexService;
+        this.blogStatsService = blogStatsService;
+        this.trustIndex = applicationProperties.getEntryIndex().isTrusted();
     }
 
     /**
      * Save a entry.
+     * <p>
+     * The entry is only locked, and the statistics of its blog only updated, when it is new, moves to another blog
+     * or gets another emoji.
      *
      * @param entryDTO the entity to save.
      * @return the persisted entity.
      */
     public EntryDTO save(EntryDTO entryDTO) {
         log.debug("Request to save Entry : {}", entryDTO);
+        BlogStatsService.Changes changes = new BlogStatsService.Changes();
+        Entry previous = entryDTO.getId() == null ? null : entryRepository.findById(entryDTO.getId()).orElse(null);
+        boolean counted = previous == null || !Objects.equals(blogIdOf(previous), entryDTO.getBlogId())
+            || previous.getEmoji() != entryDTO.getEmoji();
+        if (previous != null && counted) {
+            lockAndRemove(Collections.singletonList(entryDTO.getId()), changes);
+        }
+        // Read before the save, which copies the new values onto the previous entity
+        String previousTitle = previous == null ? null : previous.getTitle();
+        String previousContent = previous == null ? null : previous.getContent();
         Entry entry = entryMapper.toEntity(entryDTO);
         entry = entryRepository.save(entry);
+        if (counted) {
+            blogStatsService.apply(changes.add(blogIdOf(entry), entry.getEmoji()));
+        }
+        if (previous == null) {
+            entryIndexService.indexAfterCommit(entry.getId(), entry.getTitle(), entry.getContent());
+        } else {
+            entryIndexService.reindexAfterCommit(entry.getId(), previousTitle, previousContent, entry.getTitle(), entry.getContent());
+        }
         return entryMapper.toDto(entry);
     }
 
+    /**
+     * Create a batch of entries.
+     * <p>
+     * The blogs referenced by the batch are looked up with a single query, then each entry is checked on its own:
+     * an entry with an id, breaking a constraint of {@link EntryDTO}, referencing an unknown blog or breaking a rule
+     * of its blog is rejected, the other ones are inserted with JDBC batching.
+     *
+     * @param entryDTOs the entities to create.
+     * @return one result per entity, in the same order.
+     */
+    public List<EntryBatchResultDTO> saveAll(List<EntryDTO> entryDTOs) {
+        log.debug("Request to save a batch of {} Entries", entryDTOs.size());
+        Set<Long> blogIds = entryDTOs.stream()
+            .filter(Objects::nonNull)
+            .map(EntryDTO::getBlogId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Map<Long, BlogMetadataDTO> blogs = blogIds.isEmpty() ? Collections.emptyMap()
+            : blogRepository.findMetadataByIdIn(blogIds).stream()
+                .collect(Collectors.toMap(BlogMetadataDTO::getId, Function.identity()));
+
+        EntryBatchResultDTO[] results = new EntryBatchResultDTO[entryDTOs.size()];
+        List<Integer> acceptedIndexes = new ArrayList<>(entryDTOs.size());
+        List<Entry> accepted = new ArrayList<>(entryDTOs.size());
+        for (int i = 0; i < entryDTOs.size(); i++) {
+            EntryDTO entryDTO = entryDTOs.get(i);
+            results[i] = check(i, entryDTO, blogs);
+            if (results[i] == null) {
+                acceptedIndexes.add(i);
+                accepted.add(entryMapper.toEntity(entryDTO));
+            }
+        }
+
+        entryRepository.insertAll(accepted, INSERT_BATCH_SIZE);
+        BlogStatsService.Changes changes = new BlogStatsService.Changes();
+        for (int i = 0; i < accepted.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            Entry entry = accepted.get(i);
+            changes.add(blogIdOf(entry), entry.getEmoji());
+            entryIndexService.indexAfterCommit(entry.getId(), entry.getTitle(), entry.getContent());
+            results[index] = EntryBatchResultDTO.created(index, entry.getId());
+        }
+        blogStatsService.apply(changes);
+        log.debug("Created {} of {} Entries", accepted.size(), entryDTOs.size());
+        return Arrays.asList(results);
+    }
+
+    private EntryBatchResultDTO check(int index, EntryDTO entryDTO, Map<Long, BlogMetadataDTO> blogs) {
+        if (entryDTO == null) {
+            return EntryBatchResultDTO.rejected(index, "invalid", "An entry is required");
+        }
+        if (entryDTO.getId() != null) {
+            return EntryBatchResultDTO.rejected(index, "idexists", "A new entry cannot already have an ID");
+        }
+        Set<ConstraintViolation<EntryDTO>> violations = validator.validate(entryDTO);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<EntryDTO> violation = violations.iterator().next();
+            return EntryBatchResultDTO.rejected(index, "invalid", violation.getPropertyPath() + " " + violation.getMessage());
+        }
+        if (entryDTO.getBlogId() == null) {
+            return null;
+        }
+        BlogMetadataDTO blog = blogs.get(entryDTO.getBlogId());
+        if (blog == null) {
+            return EntryBatchResultDTO.rejected(index, "blognotfound", "Blog not found");
+        }
+        if (blog.isPositive() == null) {
+            return null;
+        }
+        return entryValidationService.validate(entryDTO, blog.isPositive())
+            .map(rule -> EntryBatchResultDTO.rejected(index, rule.getErrorKey(), rule.getDescription()))
+            .orElse(null);
+    }
+
     /**
      * Get all the entries.
      *
@@ -58,6 +214,182 @@ public class EntryService {
             .map(entryMapper::toDto);
     }
 
+    /**
+     * Get all the entries, without their content.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entry summaries.
+     */
+    @Transactional(readOnly = true)
+    public Page<EntrySummaryDTO> findAllSummaries(Pageable pageable) {
+        log.debug("Request to get all Entry summaries");
+        return entryRepository.findAllSummaries(pageable);
+    }
+
+    /**
+     * Search the entries by full text, best matches first, without their content.
+     *
+     * @param query the words to look for, all of them must be found.
+     * @param pageable the pagination information, its sort is ignored.
+     * @return the page of entry summaries.
+     */
+    @Transactional(readOnly = true)
+    public Page<EntrySummaryDTO> search(String query, Pageable pageable) {
+        log.debug("Request to search for a page of Entries for query {}", query);
+        return entryRepository.search(query, pageable);
+    }
+
+    /**
+     * Get the entries containing any of the words, as whole words ignoring case, without their content, newest first.
+     * <p>
+     * When {@code application.entry-index.trusted} is set, the entries are looked up in the {@link EntryIndexService},
+     * and only the requested page is read from the database. Otherwise, the entries containing the words are scanned
+     * in the database, chunk by chunk, then checked for whole words.
+     *
+     * @param words the words to look for.
+     * @param pageable the pagination information, its sort is ignored.
+     * @return the page of entry summaries, or empty if the index is trusted and still being built.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Page<EntrySummaryDTO>> findAllSummariesContainingAnyWord(Collection<String> words, Pageable pageable) {
+        log.debug("Request to get a page of Entry summaries containing words : {}", words);
+        Optional<long[]> found = trustIndex ? entryIndexService.findContainingAnyWord(words) : Optional.of(findIdsContainingAnyWord(words));
+        return found.map(ids -> {
+            int from = (int) Math.min(pageable.getOffset(), ids.length);
+            int to = Math.min(from + pageable.getPageSize(), ids.length);
+            List<Long> pageIds = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                pageIds.add(ids[i]);
+            }
+            List<EntrySummaryDTO> content = pageIds.isEmpty() ? Collections.emptyList() : entryRepository.findSummariesByIdIn(pageIds);
+            return new PageImpl<>(content, pageable, ids.length);
+        });
+    }
+
+    /**
+     * @return the ids of the entries containing any of the words, in descending order, read from the database.
+     */
+    private long[] findIdsContainingAnyWord(Collection<String> words) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String word : words) {
+            EntryIndexService.tokenize(word, terms);
+        }
+        if (terms.isEmpty()) {
+            return new long[0];
+        }
+        List<Long> ids = new ArrayList<>();
+        Set<String> entryTerms = new HashSet<>();
+        Long afterId = null;
+        List<Object[]> chunk;
+        do {
+            chunk = entryRepository.findTextChunkContainingAnyTerm(terms, afterId, SCAN_CHUNK_SIZE);
+            for (Object[] row : chunk) {
+                entryTerms.clear();
+                EntryIndexService.tokenize((String) row[1], entryTerms);
+                EntryIndexService.tokenize((String) row[2], entryTerms);
+                if (!Collections.disjoint(terms, entryTerms)) {
+                    ids.add((Long) row[0]);
+                }
+                afterId = (Long) row[0];
+            }
+        } while (chunk.size() == SCAN_CHUNK_SIZE);
+        long[] descending = new long[ids.size()];
+        for (int i = 0; i < descending.length; i++) {
+            descending[i] = ids.get(descending.length - 1 - i);
+        }
+        return descending;
+    }
+
+    /**
+     * Get a slice of entries, without their content, newest first, using keyset pagination on the id.
+     *
+     * @param beforeId the id of the last entry of the previous slice, or {@code null} for the first slice.
+     * @param size the size of the slice.
+     * @return the slice of entry summaries.
+     */
+    @Transactional(readOnly = true)
+    public Slice<EntrySummaryDTO> findSummarySliceBefore(Long beforeId, int size) {
+        log.debug("Request to get a slice of Entry summaries before : {}", beforeId);
+        return entryRepository.findSummariesByIdLessThan(beforeId == null ? Long.MAX_VALUE : beforeId,
+            PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id")));
+    }
+
+    /**
+     * Get a slice of the entries of one blog, without their content, newest first, using keyset pagination on
+     * the creation date and id.
+     * <p>
+     * Backed by the {@code (blog_id, created_date desc, id desc)} index: a slice is read from an index range scan,
+     * and its cost does not depend on how deep it is.
+     *
+     * @param blogId the id of the blog.
+     * @param beforeCreatedDate the creation date of the last entry of the previous slice, or {@code null} for the first slice.
+     * @param beforeId the id of the last entry of the previous slice, or {@code null} for the first slice.
+     * @param size the size of the slice.
+     * @return the slice of entry summaries.
+     */
+    @Transactional(readOnly = true)
+    public Slice<EntrySummaryDTO> findSummarySliceByBlog(Long blogId, Instant beforeCreatedDate, Long beforeId, int size) {
+        log.debug("Request to get a slice of Entry summaries of Blog {} before : {}, {}", blogId, beforeCreatedDate, beforeId);
+        Pageable pageable = PageRequest.of(0, size);
+        if (beforeCreatedDate == null || beforeId == null) {
+            return entryRepository.findSummariesByBlogId(blogId, pageable);
+        }
+        return entryRepository.findSummariesByBlogIdBefore(blogId, beforeCreatedDate, beforeId, pageable);
+    }
+
+    /**
+     * Get a slice of entries, newest first, using keyset pagination on the id.
+     * <p>
+     * No count query is run, and the cost of a slice does not depend on how deep it is.
+     *
+     * @param beforeId the id of the last entry of the previous slice, or {@code null} for the first slice.
+     * @param size the size of the slice.
+     * @return the slice of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<EntryDTO> findSliceBefore(Long beforeId, int size) {
+        log.debug("Request to get a slice of Entries before : {}", beforeId);
+        return entryRepository.findByIdLessThan(beforeId == null ? Long.MAX_VALUE : beforeId,
+            PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id")))
+            .map(entryMapper::toDto);
+    }
+
+    /**
+     * Count all the entries.
+     *
+     * @return the number of entries.
+     */
+    @Transactional(readOnly = true)
+    public long count() {
+        log.debug("Request to count Entries");
+        return entryRepository.count();
+    }
+
+    /**
+     * Count the entries of one blog.
+     *
+     * @param blogId the id of the blog.
+     * @return the number of entries.
+     */
+    @Transactional(readOnly = true)
+    public long countByBlogId(Long blogId) {
+        log.debug("Request to count Entries of Blog : {}", blogId);
+        return entryRepository.countByBlogId(blogId);
+    }
+
+    /**
+     * Stream all the entries, chunk by chunk, without loading the whole table in memory.
+     * <p>
+     * Must be called, and the stream consumed, inside the caller's transaction.
+     *
+     * @return the stream of entities, to be closed by the caller.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<EntryDTO> streamAll() {
+        log.debug("Request to stream all Entries");
+        return entryRepository.streamAll(SCAN_CHUNK_SIZE)
+            .map(entryMapper::toDto);
+    }
 
     /**
      * Get one entry by id.
@@ -79,6 +411,188 @@ public class EntryService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Entry : {}", id);
-        entryRepository.deleteById(id);
+        BlogStatsService.Changes changes = lockAndRemove(Collections.singletonList(id), new BlogStatsService.Changes());
+        Entry entry = entryRepository.findById(id).orElseThrow(() -> new EmptyResultDataAccessException(
+            String.format("No %s entity with id %s exists!", Entry.class, id), 1));
+        entryRepository.delete(entry);
+        blogStatsService.apply(changes);
+        entryIndexService.removeAfterCommit(Collections.singletonList(entry));
+    }
+
+    /**
+     * Get the lowest and highest ids of the entries.
+     *
+     * @param blogId the id of the blog, or {@code null} for all the entries.
+     * @return the {@code [min, max]} ids, or empty if there is no entry.
+     */
+    @Transactional(readOnly = true)
+    public Optional<long[]> findIdRange(Long blogId) {
+        return entryRepository.findIdRange(blogId);
+    }
+
+    /**
+     * Scan the chunk following an id for entries containing the keywords, then delete them, or only report them for
+     * a dry run. Runs in its own transaction when called without one.
+     * <p>
+     * Long running cleanups call this in a loop, feeding back {@link ChunkResult#getLastId()}, so that each chunk is
+     * committed on its own and an interrupted cleanup keeps the work already done. Dry runs read the same chunks
+     * with the same matcher, so they cost about as much as the real cleanup.
+     *
+     * @param blogId the id of the blog to clean, or {@code null} to clean all the blogs.
+     * @param afterId the id of the last entry of the previous chunk, or {@code null} for the first chunk.
+     * @param upToId the last id of the range to clean, inclusive, or {@code null} to clean to the end.
+     * @param matcher the compiled keywords.
+     * @param dryRun {@code true} to report the matching entries, with their keywords, instead of deleting them.
+     * @return the progress made on this chunk.
+     */
+    public ChunkResult scanChunk(Long blogId, Long afterId, Long upToId, KeywordMatcher matcher, boolean dryRun) {
+        List<Entry> chunk = entryRepository.findChunkAfter(blogId, afterId, upToId, SCAN_CHUNK_SIZE);
+        Long lastId = chunk.isEmpty() ? afterId : chunk.get(chunk.size() - 1).getId();
+        return checkEntries(chunk, matcher, dryRun, lastId, chunk.size() < SCAN_CHUNK_SIZE);
+    }
+
+    /**
+     * Check some entries for the keywords, then delete the matching ones, or only report them for a dry run, like
+     * {@link #scanChunk(Long, Long, Long, KeywordMatcher, boolean)}. Runs in its own transaction when called without one.
+     * <p>
+     * Used with the candidates found by {@link EntryIndexService#findContainingAnyKeyword(KeywordMatcher)}, which are
+     * checked again against their current title and content.
+     *
+     * @param blogId the id of the blog to clean, or {@code null} to clean all the blogs.
+     * @param ids the ids of the entries to check, missing ones are skipped.
+     * @param matcher the compiled keywords.
+     * @param dryRun {@code true} to report the matching entries, with their keywords, instead of deleting them.
+     * @return the progress made on these entries, {@link ChunkResult#getLastId()} being the highest of the ids.
+     */
+    public ChunkResult scanEntries(Long blogId, List<Long> ids, KeywordMatcher matcher, boolean dryRun) {
+        List<Entry> entries = ids.isEmpty() ? Collections.emptyList() : entryRepository.findAllWithBlogByIdIn(ids);
+        if (blogId != null) {
+            entries = entries.stream()
+                .filter(entry -> entry.getBlog() != null && blogId.equals(entry.getBlog().getId()))
+                .collect(Collectors.toList());
+        }
+        Long lastId = ids.stream().max(Long::compare).orElse(null);
+        return checkEntries(entries, matcher, dryRun, lastId, false);
+    }
+
+    private ChunkResult checkEntries(List<Entry> entries, KeywordMatcher matcher, boolean dryRun, Long lastId, boolean last) {
+        List<Entry> matching = new ArrayList<>();
+        List<EntryMatchDTO> matches = dryRun ? new ArrayList<>() : Collections.emptyList();
+        BitSet found = new BitSet(matcher.size());
+        for (Entry entry : entries) {
+            if (!dryRun) {
+                if (matcher.matchesAny(entry.getTitle(), entry.getContent())) {
+                    matching.add(entry);
+                }
+                continue;
+            }
+            found.clear();
+            matcher.collectMatches(entry.getTitle(), found);
+            matcher.collectMatches(entry.getContent(), found);
+            if (!found.isEmpty()) {
+                matching.add(entry);
+                matches.add(new EntryMatchDTO(entry.getId(), entry.getBlog() == null ? null : entry.getBlog().getId(),
+                    found.stream().mapToObj(matcher::keyword).collect(Collectors.toList())));
+            }
+        }
+        int deleted = dryRun ? 0 : deleteAll(matching);
+        return new ChunkResult(entries.size(), matching.size(), deleted, lastId, last, matches);
+    }
+
+    private int deleteAll(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = entries.stream().map(Entry::getId).collect(Collectors.toList());
+        BlogStatsService.Changes changes = lockAndRemove(ids, new BlogStatsService.Changes());
+        int deleted = entryRepository.deleteByIdIn(ids);
+        blogStatsService.apply(changes);
+        entryIndexService.removeAfterCommit(entries);
+        return deleted;
+    }
+
+    /**
+     * Lock the entries about to be changed, and count them out of the statistics of their current blog and emoji.
+     */
+    private BlogStatsService.Changes lockAndRemove(List<Long> ids, BlogStatsService.Changes changes) {
+        for (Object[] row : entryRepository.lockBlogIdAndEmojiByIdIn(ids)) {
+            changes.remove(((Number) row[0]).longValue(), Emoji.valueOf((String) row[1]));
+        }
+        return changes;
+    }
+
+    private static Long blogIdOf(Entry entry) {
+        return entry.getBlog() == null ? null : entry.getBlog().getId();
+    }
+
+    static KeywordMatcher compileKeywords(String[] keywords) {
+        return KeywordMatcher.compile(Arrays.stream(keywords)
+            .filter(Objects::nonNull)
+            .map(String::trim)
+            .collect(Collectors.toList()));
+    }
+
+    /**
+     * The outcome of {@link #scanChunk(Long, Long, Long, KeywordMatcher, boolean)}.
+     */
+    public static final class ChunkResult {
+
+        private final int scanned;
+
+        private final int matched;
+
+        private final int deleted;
+
+        private final Long lastId;
+
+        private final boolean last;
+
+        private final List<EntryMatchDTO> matches;
+
+        ChunkResult(int scanned, int deleted, Long lastId, boolean last) {
+            this(scanned, deleted, deleted, lastId, last, Collections.emptyList());
+        }
+
+        ChunkResult(int scanned, int matched, int deleted, Long lastId, boolean last, List<EntryMatchDTO> matches) {
+            this.scanned = scanned;
+            this.matched = matched;
+            this.deleted = deleted;
+            this.lastId = lastId;
+            this.last = last;
+            this.matches = matches;
+        }
+
+        public int getScanned() {
+            return scanned;
+        }
+
+        public int getMatched() {
+            return matched;
+        }
+
+        public int getDeleted() {
+            return deleted;
+        }
+
+        /**
+         * @return the id to resume the scan after.
+         */
+        public Long getLastId() {
+            return lastId;
+        }
+
+        /**
+         * @return {@code true} if there is nothing left to scan.
+         */
+        public boolean isLast() {
+            return last;
+        }
+
+        /**
+         * @return the matching entries of a dry run, empty otherwise.
+         */
+        public List<EntryMatchDTO> getMatches() {
+            return matches;
+        }
     }
 }
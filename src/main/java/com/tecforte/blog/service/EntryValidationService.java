@@ -0,0 +1,88 @@
+package com.tecforte.blog.service;
+
+import com.tecforte.blog.config.ApplicationProperties;
+import com.tecforte.blog.domain.enumeration.Emoji;
+import com.tecforte.blog.service.dto.EntryDTO;
+import com.tecforte.blog.service.util.KeywordMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Service checking the emoji, title and content of an entry against the rules of its blog polarity.
+ * <p>
+ * The forbidden words are configured with {@code application.entry-rules} and compiled once, at startup,
+ * so each field of an entry is scanned a single time whatever the number of words. A forbidden word only counts as a
+ * whole word, not inside another word.
+ */
+@Service
+public class EntryValidationService {
+
+    private final Logger log = LoggerFactory.getLogger(EntryValidationService.class);
+
+    private final PolarityRules positiveBlogRules;
+
+    private final PolarityRules negativeBlogRules;
+
+    public EntryValidationService(ApplicationProperties applicationProperties) {
+        ApplicationProperties.EntryRules entryRules = applicationProperties.getEntryRules();
+        this.positiveBlogRules = new PolarityRules(entryRules.getPositiveBlog(),
+            EntryRule.POSITIVE_BLOG_EMOJI, EntryRule.POSITIVE_BLOG_TITLE, EntryRule.POSITIVE_BLOG_CONTENT);
+        this.negativeBlogRules = new PolarityRules(entryRules.getNegativeBlog(),
+            EntryRule.NEGATIVE_BLOG_EMOJI, EntryRule.NEGATIVE_BLOG_TITLE, EntryRule.NEGATIVE_BLOG_CONTENT);
+    }
+
+    /**
+     * Check an entry against the rules of a blog.
+     *
+     * @param entryDTO the entry to check.
+     * @param positiveBlog the polarity of the blog of the entry.
+     * @return the first rule the entry breaks, or empty if it is valid.
+     */
+    public Optional<EntryRule> validate(EntryDTO entryDTO, boolean positiveBlog) {
+        EntryRule brokenRule = (positiveBlog ? positiveBlogRules : negativeBlogRules).check(entryDTO);
+        if (brokenRule != null) {
+            log.debug("Entry {} breaks rule {}", entryDTO.getId(), brokenRule);
+        }
+        return Optional.ofNullable(brokenRule);
+    }
+
+    private static final class PolarityRules {
+
+        private final Set<Emoji> forbiddenEmojis;
+
+        private final KeywordMatcher forbiddenWords;
+
+        private final EntryRule emojiRule;
+
+        private final EntryRule titleRule;
+
+        private final EntryRule contentRule;
+
+        private PolarityRules(ApplicationProperties.EntryRules.Polarity polarity, EntryRule emojiRule, EntryRule titleRule, EntryRule contentRule) {
+            this.forbiddenEmojis = polarity.getForbiddenEmojis().isEmpty()
+                ? EnumSet.noneOf(Emoji.class) : EnumSet.copyOf(polarity.getForbiddenEmojis());
+            this.forbiddenWords = KeywordMatcher.compile(polarity.getForbiddenWords());
+            this.emojiRule = emojiRule;
+            this.titleRule = titleRule;
+            this.contentRule = contentRule;
+        }
+
+        private EntryRule check(EntryDTO entryDTO) {
+            if (forbiddenEmojis.contains(entryDTO.getEmoji())) {
+                return emojiRule;
+            }
+            if (forbiddenWords.matchesWord(entryDTO.getTitle())) {
+                return titleRule;
+            }
+            if (forbiddenWords.matchesWord(entryDTO.getContent())) {
+                return contentRule;
+            }
+            return null;
+        }
+    }
+}
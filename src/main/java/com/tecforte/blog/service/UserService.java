@@ -4,6 +4,7 @@ import com.tecforte.blog.config.Constants;
 import com.tecforte.blog.domain.Authority;
 import com.tecforte.blog.domain.User;
 import com.tecforte.blog.repository.AuthorityRepository;
+import com.tecforte.blog.repository.BlogRepository;
 import com.tecforte.blog.repository.UserRepository;
 import com.tecforte.blog.security.AuthoritiesConstants;
 import com.tecforte.blog.security.SecurityUtils;
@@ -12,6 +13,7 @@ import com.tecforte.blog.service.util.RandomUtil;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -19,6 +21,8 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -199,6 +203,9 @@ public class UserService {
             .map(Optional::get)
             .map(user -> {
                 this.clearUserCaches(user);
+                if (!user.getLogin().equals(userDTO.getLogin().toLowerCase())) {
+                    this.clearBlogMetadataCache();
+                }
                 user.setLogin(userDTO.getLogin().toLowerCase());
                 user.setFirstName(userDTO.getFirstName());
                 user.setLastName(userDTO.getLastName());
@@ -292,4 +299,21 @@ public class UserService {
         Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
         Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
     }
+
+    /**
+     * The cached blog metadata holds the login of the blog owners: login changes are rare, so all of it is dropped.
+     */
+    private void clearBlogMetadataCache() {
+        Cache blogMetadataCache = Objects.requireNonNull(cacheManager.getCache(BlogRepository.BLOG_METADATA_CACHE));
+        blogMetadataCache.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // a concurrent reader may have cached the old login before this transaction commits
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    blogMetadataCache.clear();
+                }
+            });
+        }
+    }
 }
@@ -0,0 +1,78 @@
+package com.tecforte.blog.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A lightweight, cacheable view of the {@link com.tecforte.blog.domain.Blog} entity, without its entries.
+ */
+public class BlogMetadataDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    private final String name;
+
+    private final Boolean positive;
+
+    private final Long userId;
+
+    private final String userLogin;
+
+    public BlogMetadataDTO(Long id, String name, Boolean positive, Long userId, String userLogin) {
+        this.id = id;
+        this.name = name;
+        this.positive = positive;
+        this.userId = userId;
+        this.userLogin = userLogin;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Boolean isPositive() {
+        return positive;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUserLogin() {
+        return userLogin;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BlogMetadataDTO that = (BlogMetadataDTO) o;
+        return id != null && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "BlogMetadataDTO{" +
+            "id=" + id +
+            ", name='" + name + '\'' +
+            ", positive=" + positive +
+            ", userId=" + userId +
+            ", userLogin='" + userLogin + '\'' +
+            '}';
+    }
+}
@@ -0,0 +1,53 @@
+package com.tecforte.blog.service.dto;
+
+import com.tecforte.blog.domain.enumeration.Emoji;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * The number of entries of a blog, per emoji.
+ */
+public class BlogStatsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long blogId;
+
+    private final long entryCount;
+
+    private final Map<Emoji, Long> emojiCounts;
+
+    public BlogStatsDTO(Long blogId, long entryCount, Map<Emoji, Long> emojiCounts) {
+        this.blogId = blogId;
+        this.entryCount = entryCount;
+        this.emojiCounts = emojiCounts;
+    }
+
+    public Long getBlogId() {
+        return blogId;
+    }
+
+    /**
+     * @return the number of entries of the blog, all emojis together.
+     */
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return for each emoji, in declaration order, the number of entries of the blog with it.
+     */
+    public Map<Emoji, Long> getEmojiCounts() {
+        return emojiCounts;
+    }
+
+    @Override
+    public String toString() {
+        return "BlogStatsDTO{" +
+            "blogId=" + getBlogId() +
+            ", entryCount=" + getEntryCount() +
+            ", emojiCounts=" + getEmojiCounts() +
+            "}";
+    }
+}
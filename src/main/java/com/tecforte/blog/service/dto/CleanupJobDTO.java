@@ -0,0 +1,112 @@
+package com.tecforte.blog.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A snapshot of a background job deleting the blog entries that contain some keywords.
+ */
+public class CleanupJobDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    private final String id;
+
+    private final Long blogId;
+
+    private final List<String> keywords;
+
+    private final Status status;
+
+    private final long scanned;
+
+    private final long deleted;
+
+    private final Instant createdDate;
+
+    private final Instant startedDate;
+
+    private final Instant finishedDate;
+
+    private final String error;
+
+    public CleanupJobDTO(String id, Long blogId, List<String> keywords, Status status, long scanned, long deleted,
+                         Instant createdDate, Instant startedDate, Instant finishedDate, String error) {
+        this.id = id;
+        this.blogId = blogId;
+        this.keywords = keywords;
+        this.status = status;
+        this.scanned = scanned;
+        this.deleted = deleted;
+        this.createdDate = createdDate;
+        this.startedDate = startedDate;
+        this.finishedDate = finishedDate;
+        this.error = error;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return the id of the blog to clean, or {@code null} if all the blogs are cleaned.
+     */
+    public Long getBlogId() {
+        return blogId;
+    }
+
+    public List<String> getKeywords() {
+        return keywords;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the number of entries read so far.
+     */
+    public long getScanned() {
+        return scanned;
+    }
+
+    /**
+     * @return the number of entries deleted so far, all of them committed.
+     */
+    public long getDeleted() {
+        return deleted;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public Instant getStartedDate() {
+        return startedDate;
+    }
+
+    public Instant getFinishedDate() {
+        return finishedDate;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "CleanupJobDTO{" +
+            "id='" + getId() + "'" +
+            ", blogId=" + getBlogId() +
+            ", keywords=" + getKeywords() +
+            ", status='" + getStatus() + "'" +
+            ", scanned=" + getScanned() +
+            ", deleted=" + getDeleted() +
+            "}";
+    }
+}
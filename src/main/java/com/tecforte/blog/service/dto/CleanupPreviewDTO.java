@@ -0,0 +1,72 @@
+package com.tecforte.blog.service.dto;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * The statistics of a keyword cleanup preview: what the cleanup would delete, without deleting anything.
+ */
+public class CleanupPreviewDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long blogId;
+
+    private final long scanned;
+
+    private final long matched;
+
+    private final Map<String, Long> keywordHits;
+
+    private final Map<Long, Long> blogTotals;
+
+    public CleanupPreviewDTO(Long blogId, long scanned, long matched, Map<String, Long> keywordHits, Map<Long, Long> blogTotals) {
+        this.blogId = blogId;
+        this.scanned = scanned;
+        this.matched = matched;
+        this.keywordHits = keywordHits;
+        this.blogTotals = blogTotals;
+    }
+
+    /**
+     * @return the id of the previewed blog, or {@code null} if all the blogs were previewed.
+     */
+    public Long getBlogId() {
+        return blogId;
+    }
+
+    public long getScanned() {
+        return scanned;
+    }
+
+    /**
+     * @return the number of entries the cleanup would delete.
+     */
+    public long getMatched() {
+        return matched;
+    }
+
+    /**
+     * @return for each case-folded keyword, the number of entries containing it.
+     */
+    public Map<String, Long> getKeywordHits() {
+        return keywordHits;
+    }
+
+    /**
+     * @return for each blog with matching entries, the number of entries the cleanup would delete.
+     */
+    public Map<Long, Long> getBlogTotals() {
+        return blogTotals;
+    }
+
+    @Override
+    public String toString() {
+        return "CleanupPreviewDTO{" +
+            "blogId=" + getBlogId() +
+            ", scanned=" + getScanned() +
+            ", matched=" + getMatched() +
+            ", keywordHits=" + getKeywordHits() +
+            "}";
+    }
+}
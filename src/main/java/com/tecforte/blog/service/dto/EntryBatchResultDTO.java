@@ -0,0 +1,74 @@
+package com.tecforte.blog.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * The outcome of one item of a batch of {@link EntryDTO}s: either the id of the created entry, or why it was rejected.
+ */
+public class EntryBatchResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        CREATED, REJECTED
+    }
+
+    private final int index;
+
+    private final Status status;
+
+    private final Long id;
+
+    private final String errorKey;
+
+    private final String message;
+
+    private EntryBatchResultDTO(int index, Status status, Long id, String errorKey, String message) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.errorKey = errorKey;
+        this.message = message;
+    }
+
+    public static EntryBatchResultDTO created(int index, Long id) {
+        return new EntryBatchResultDTO(index, Status.CREATED, id, null, null);
+    }
+
+    public static EntryBatchResultDTO rejected(int index, String errorKey, String message) {
+        return new EntryBatchResultDTO(index, Status.REJECTED, null, errorKey, message);
+    }
+
+    /**
+     * @return the position of the item in the batch, starting at {@code 0}.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getErrorKey() {
+        return errorKey;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "EntryBatchResultDTO{" +
+            "index=" + getIndex() +
+            ", status='" + getStatus() + "'" +
+            ", id=" + getId() +
+            ", errorKey='" + getErrorKey() + "'" +
+            "}";
+    }
+}
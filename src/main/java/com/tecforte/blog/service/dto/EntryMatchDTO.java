@@ -0,0 +1,48 @@
+package com.tecforte.blog.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * An entry found by a keyword cleanup preview, with the keywords it contains.
+ */
+public class EntryMatchDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    private final Long blogId;
+
+    private final List<String> keywords;
+
+    public EntryMatchDTO(Long id, Long blogId, List<String> keywords) {
+        this.id = id;
+        this.blogId = blogId;
+        this.keywords = keywords;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getBlogId() {
+        return blogId;
+    }
+
+    /**
+     * @return the keywords found in the title or content, case-folded.
+     */
+    public List<String> getKeywords() {
+        return keywords;
+    }
+
+    @Override
+    public String toString() {
+        return "EntryMatchDTO{" +
+            "id=" + getId() +
+            ", blogId=" + getBlogId() +
+            ", keywords=" + getKeywords() +
+            "}";
+    }
+}
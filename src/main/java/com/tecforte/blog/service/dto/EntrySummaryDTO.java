@@ -0,0 +1,119 @@
+package com.tecforte.blog.service.dto;
+
+import com.tecforte.blog.domain.enumeration.Emoji;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A summary DTO for the {@link com.tecforte.blog.domain.Entry} entity, used by list views: it never carries the content.
+ */
+public class EntrySummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String title;
+
+    private Emoji emoji;
+
+    private Long blogId;
+
+    private String blogName;
+
+    private Instant createdDate;
+
+    public EntrySummaryDTO() {
+    }
+
+    public EntrySummaryDTO(Long id, String title, Emoji emoji, Long blogId, String blogName, Instant createdDate) {
+        this.id = id;
+        this.title = title;
+        this.emoji = emoji;
+        this.blogId = blogId;
+        this.blogName = blogName;
+        this.createdDate = createdDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Emoji getEmoji() {
+        return emoji;
+    }
+
+    public void setEmoji(Emoji emoji) {
+        this.emoji = emoji;
+    }
+
+    public Long getBlogId() {
+        return blogId;
+    }
+
+    public void setBlogId(Long blogId) {
+        this.blogId = blogId;
+    }
+
+    public String getBlogName() {
+        return blogName;
+    }
+
+    public void setBlogName(String blogName) {
+        this.blogName = blogName;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        EntrySummaryDTO entrySummaryDTO = (EntrySummaryDTO) o;
+        if (entrySummaryDTO.getId() == null || getId() == null) {
+            return false;
+        }
+        return Objects.equals(getId(), entrySummaryDTO.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getId());
+    }
+
+    @Override
+    public String toString() {
+        return "EntrySummaryDTO{" +
+            "id=" + getId() +
+            ", title='" + getTitle() + "'" +
+            ", emoji='" + getEmoji() + "'" +
+            ", blog=" + getBlogId() +
+            ", blog='" + getBlogName() + "'" +
+            "}";
+    }
+}
@@ -13,7 +13,7 @@ public interface BlogMapper extends EntityMapper<BlogDTO, Blog> {
 
     @Mapping(source = "user.id", target = "userId")
     @Mapping(source = "user.login", target = "userLogin")
-    @Mapping(target = "entryCount", expression = "java(blog.getEntries().size())")
+    @Mapping(target = "entryCount", ignore = true)
     BlogDTO toDto(Blog blog);
 
     @Mapping(target = "entries", ignore = true)
@@ -0,0 +1,319 @@
+package com.tecforte.blog.service.util;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Case-insensitive multi-keyword matcher, based on an Aho-Corasick automaton.
+ * <p>
+ * The keywords are compiled once into a deterministic automaton, then any text can be scanned for all of them
+ * in a single pass, without lower-casing or copying it. Instances are immutable and can be shared between threads.
+ */
+public final class KeywordMatcher {
+
+    private static final int ASCII_SIZE = 128;
+
+    private static final int ROOT = 0;
+
+    private static final KeywordMatcher EMPTY = new KeywordMatcher(new String[0], new char[0], new int[ASCII_SIZE], new int[]{ROOT},
+        new boolean[1], new int[2], new int[0]);
+
+    /**
+     * The distinct case-folded keywords, in compilation order; a keyword is identified by its index.
+     */
+    private final String[] keywords;
+
+    /**
+     * The distinct case-folded characters used by the keywords, sorted; a character at index {@code i} has class {@code i + 1}.
+     */
+    private final char[] alphabet;
+
+    /**
+     * Character class of every ASCII character, class {@code 0} being "not used by any keyword".
+     */
+    private final int[] asciiClasses;
+
+    /**
+     * Transition table, {@code transitions[state * (alphabet.length + 1) + class]} is the next state.
+     */
+    private final int[] transitions;
+
+    /**
+     * Whether reaching a state means that a keyword, or one of its suffixes, has just been matched.
+     */
+    private final boolean[] accepting;
+
+    /**
+     * The keywords matched when reaching a state {@code s} are {@code outputs[outputOffsets[s]]} to
+     * {@code outputs[outputOffsets[s + 1] - 1]}.
+     */
+    private final int[] outputOffsets;
+
+    private final int[] outputs;
+
+    private KeywordMatcher(String[] keywords, char[] alphabet, int[] asciiClasses, int[] transitions, boolean[] accepting,
+                           int[] outputOffsets, int[] outputs) {
+        this.keywords = keywords;
+        this.alphabet = alphabet;
+        this.asciiClasses = asciiClasses;
+        this.transitions = transitions;
+        this.accepting = accepting;
+        this.outputOffsets = outputOffsets;
+        this.outputs = outputs;
+    }
+
+    /**
+     * Compile the keywords into a matcher. Empty and {@code null} keywords are ignored.
+     *
+     * @param keywords the keywords to look for, in any case.
+     * @return the matcher.
+     */
+    public static KeywordMatcher compile(Collection<String> keywords) {
+        Set<String> folded = new LinkedHashSet<>();
+        for (String keyword : keywords) {
+            if (keyword != null && !keyword.isEmpty()) {
+                folded.add(fold(keyword));
+            }
+        }
+        if (folded.isEmpty()) {
+            return EMPTY;
+        }
+
+        char[] alphabet = alphabetOf(folded);
+        int width = alphabet.length + 1;
+        int[] asciiClasses = new int[ASCII_SIZE];
+        for (char c = 0; c < ASCII_SIZE; c++) {
+            asciiClasses[c] = classOf(alphabet, Character.toLowerCase(c));
+        }
+
+        int maxStates = 1;
+        for (String keyword : folded) {
+            maxStates += keyword.length();
+        }
+
+        // Trie of the keywords, -1 marking a missing edge
+        int[] transitions = new int[maxStates * width];
+        Arrays.fill(transitions, -1);
+        boolean[] accepting = new boolean[maxStates];
+        int[] terminals = new int[maxStates];
+        Arrays.fill(terminals, -1);
+        int stateCount = 1;
+        int keywordIndex = 0;
+        for (String keyword : folded) {
+            int state = ROOT;
+            for (int i = 0; i < keyword.length(); i++) {
+                int edge = state * width + classOf(alphabet, keyword.charAt(i));
+                if (transitions[edge] < 0) {
+                    transitions[edge] = stateCount++;
+                }
+                state = transitions[edge];
+            }
+            accepting[state] = true;
+            terminals[state] = keywordIndex++;
+        }
+
+        // Breadth-first walk turning the trie into a complete automaton, following failure links for missing edges
+        int[] failures = new int[stateCount];
+        int[][] stateOutputs = new int[stateCount][];
+        stateOutputs[ROOT] = new int[0];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < width; c++) {
+            int next = transitions[ROOT * width + c];
+            if (next < 0) {
+                transitions[ROOT * width + c] = ROOT;
+            } else {
+                failures[next] = ROOT;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            accepting[state] |= accepting[failures[state]];
+            // The keywords ending here are this one, if any, and those ending at the failure state, already visited
+            int[] inherited = stateOutputs[failures[state]];
+            if (terminals[state] < 0) {
+                stateOutputs[state] = inherited;
+            } else {
+                stateOutputs[state] = Arrays.copyOf(inherited, inherited.length + 1);
+                stateOutputs[state][inherited.length] = terminals[state];
+            }
+            for (int c = 0; c < width; c++) {
+                int edge = state * width + c;
+                int fallback = transitions[failures[state] * width + c];
+                if (transitions[edge] < 0) {
+                    transitions[edge] = fallback;
+                } else {
+                    failures[transitions[edge]] = fallback;
+                    queue.add(transitions[edge]);
+                }
+            }
+        }
+
+        int[] outputOffsets = new int[stateCount + 1];
+        for (int state = 0; state < stateCount; state++) {
+            outputOffsets[state + 1] = outputOffsets[state] + stateOutputs[state].length;
+        }
+        int[] outputs = new int[outputOffsets[stateCount]];
+        for (int state = 0; state < stateCount; state++) {
+            System.arraycopy(stateOutputs[state], 0, outputs, outputOffsets[state], stateOutputs[state].length);
+        }
+
+        return new KeywordMatcher(folded.toArray(new String[0]), alphabet, asciiClasses, Arrays.copyOf(transitions, stateCount * width),
+            Arrays.copyOf(accepting, stateCount), outputOffsets, outputs);
+    }
+
+    /**
+     * Check if the text contains at least one of the keywords, ignoring case.
+     *
+     * @param text the text to scan, may be {@code null}.
+     * @return {@code true} if one of the keywords was found.
+     */
+    public boolean matches(CharSequence text) {
+        if (text == null || keywords.length == 0) {
+            return false;
+        }
+        int width = alphabet.length + 1;
+        int state = ROOT;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = transitions[state * width + classOf(text.charAt(i))];
+            if (accepting[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if the text contains at least one of the keywords as a whole word, ignoring case: the characters right
+     * before and after the keyword, if any, must not be letters or digits. For instance "love" is found in
+     * "I love it" and "love!", not in "glove" or "lovely".
+     *
+     * @param text the text to scan, may be {@code null}.
+     * @return {@code true} if one of the keywords was found as a whole word.
+     */
+    public boolean matchesWord(CharSequence text) {
+        if (text == null || keywords.length == 0) {
+            return false;
+        }
+        int width = alphabet.length + 1;
+        int state = ROOT;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = transitions[state * width + classOf(text.charAt(i))];
+            if (accepting[state] && !isLetterOrDigitAt(text, i + 1)) {
+                for (int output = outputOffsets[state]; output < outputOffsets[state + 1]; output++) {
+                    // Case folding keeps the length, so the keyword starts as many characters back in the text
+                    if (!isLetterOrDigitAt(text, i - keywords[outputs[output]].length())) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if any of the texts contains at least one of the keywords, ignoring case.
+     * Each text is scanned on its own, so a keyword never matches across two of them.
+     *
+     * @param first the first text to scan, may be {@code null}.
+     * @param second the second text to scan, may be {@code null}.
+     * @return {@code true} if one of the keywords was found.
+     */
+    public boolean matchesAny(CharSequence first, CharSequence second) {
+        return matches(first) || matches(second);
+    }
+
+    /**
+     * Find all the keywords contained in the text, ignoring case. Unlike {@link #matches(CharSequence)}, the whole
+     * text is always scanned.
+     *
+     * @param text the text to scan, may be {@code null}.
+     * @param found where to set the index of each keyword found, see {@link #keyword(int)}.
+     * @return {@code true} if one of the keywords was found.
+     */
+    public boolean collectMatches(CharSequence text, BitSet found) {
+        if (text == null || keywords.length == 0) {
+            return false;
+        }
+        int width = alphabet.length + 1;
+        int state = ROOT;
+        boolean matched = false;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = transitions[state * width + classOf(text.charAt(i))];
+            if (accepting[state]) {
+                matched = true;
+                for (int output = outputOffsets[state]; output < outputOffsets[state + 1]; output++) {
+                    found.set(outputs[output]);
+                }
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * @param index the index of a keyword, between {@code 0} and {@link #size()} excluded.
+     * @return the keyword, case-folded.
+     */
+    public String keyword(int index) {
+        return keywords[index];
+    }
+
+    /**
+     * @return {@code true} if no keyword was compiled, in which case nothing ever matches.
+     */
+    public boolean isEmpty() {
+        return keywords.length == 0;
+    }
+
+    /**
+     * @return the number of distinct keywords, after case folding.
+     */
+    public int size() {
+        return keywords.length;
+    }
+
+    private static boolean isLetterOrDigitAt(CharSequence text, int index) {
+        return index >= 0 && index < text.length() && Character.isLetterOrDigit(text.charAt(index));
+    }
+
+    private int classOf(char c) {
+        if (c < ASCII_SIZE) {
+            return asciiClasses[c];
+        }
+        return classOf(alphabet, Character.toLowerCase(c));
+    }
+
+    private static int classOf(char[] alphabet, char folded) {
+        int index = Arrays.binarySearch(alphabet, folded);
+        return index < 0 ? 0 : index + 1;
+    }
+
+    private static String fold(String keyword) {
+        char[] chars = new char[keyword.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(keyword.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    private static char[] alphabetOf(Set<String> keywords) {
+        StringBuilder chars = new StringBuilder();
+        for (String keyword : keywords) {
+            chars.append(keyword);
+        }
+        char[] alphabet = chars.toString().toCharArray();
+        Arrays.sort(alphabet);
+        int distinct = 0;
+        for (int i = 0; i < alphabet.length; i++) {
+            if (i == 0 || alphabet[i] != alphabet[i - 1]) {
+                alphabet[distinct++] = alphabet[i];
+            }
+        }
+        return Arrays.copyOf(alphabet, distinct);
+    }
+}
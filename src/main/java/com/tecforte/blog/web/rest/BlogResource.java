@@ -1,17 +1,31 @@
 package com.tecforte.blog.web.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tecforte.blog.service.BlogService;
+import com.tecforte.blog.service.BlogStatsService;
+import com.tecforte.blog.service.CleanupJobService;
 import com.tecforte.blog.service.dto.BlogDTO;
+import com.tecforte.blog.service.dto.BlogStatsDTO;
+import com.tecforte.blog.service.dto.CleanupJobDTO;
+import com.tecforte.blog.service.dto.CleanupPreviewDTO;
+import com.tecforte.blog.service.dto.EntryMatchDTO;
 import com.tecforte.blog.web.rest.errors.BadRequestAlertException;
+import com.tecforte.blog.web.rest.util.CursorUtil;
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Arrays;
@@ -26,13 +40,21 @@ import java.util.Optional;
 public class BlogResource {
 
     private static final String ENTITY_NAME = "blog";
+    private static final String NDJSON_VALUE = "application/x-ndjson";
     private final Logger log = LoggerFactory.getLogger(BlogResource.class);
     private final BlogService blogService;
+    private final BlogStatsService blogStatsService;
+    private final CleanupJobService cleanupJobService;
+    private final ObjectMapper objectMapper;
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
-    public BlogResource(BlogService blogService) {
+    public BlogResource(BlogService blogService, BlogStatsService blogStatsService, CleanupJobService cleanupJobService,
+                        ObjectMapper objectMapper) {
         this.blogService = blogService;
+        this.blogStatsService = blogStatsService;
+        this.cleanupJobService = cleanupJobService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -77,14 +99,26 @@ public class BlogResource {
     }
 
     /**
-     * {@code GET  /blogs} : get all the blogs.
+     * {@code GET  /blogs} : get a page of the blogs.
+     * <p>
+     * The blogs are returned in id order, and the cursor of the next page, if any, is sent in the {@code X-Next-Cursor} header.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of blogs in body.
+     * @param cursor the {@code X-Next-Cursor} of the previous page, omitted for the first page.
+     * @param size the size of the page, defaults to {@value CursorUtil#DEFAULT_PAGE_SIZE} and capped to {@value CursorUtil#MAX_PAGE_SIZE}.
+     * @param owner the login of the owner of the blogs to keep.
+     * @param positive the polarity of the blogs to keep.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of blogs in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is malformed.
      */
     @GetMapping("/blogs")
-    public List<BlogDTO> getAllBlogs() {
-        log.debug("REST request to get all Blogs");
-        return blogService.findAll();
+    public ResponseEntity<List<BlogDTO>> getAllBlogs(@RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer size,
+                                                     @RequestParam(required = false) String owner,
+                                                     @RequestParam(required = false) Boolean positive) {
+        log.debug("REST request to get a page of Blogs");
+        Slice<BlogDTO> page = blogService.findPage(CursorUtil.decodeId(cursor, ENTITY_NAME), owner, positive, CursorUtil.pageSize(size));
+        String nextCursor = page.hasNext() ? CursorUtil.encode(page.getContent().get(page.getNumberOfElements() - 1).getId()) : null;
+        return ResponseEntity.ok().headers(CursorUtil.generateCursorHttpHeaders(nextCursor)).body(page.getContent());
     }
 
     /**
@@ -100,6 +134,20 @@ public class BlogResource {
         return ResponseUtil.wrapOrNotFound(blogDTO);
     }
 
+    /**
+     * {@code GET  /blogs/:id/stats} : get the number of entries of the "id" blog, per emoji.
+     * <p>
+     * The statistics are maintained as entries are saved and deleted, so the cost does not depend on the size of the blog.
+     *
+     * @param id the id of the blog.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the statistics, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/blogs/{id}/stats")
+    public ResponseEntity<BlogStatsDTO> getBlogStats(@PathVariable Long id) {
+        log.debug("REST request to get the statistics of Blog : {}", id);
+        return ResponseUtil.wrapOrNotFound(blogStatsService.findOne(id));
+    }
+
     /**
      * {@code DELETE  /blogs/:id} : delete the "id" blog.
      *
@@ -115,29 +163,92 @@ public class BlogResource {
 
     /**
      * {@code DELETE  /blogs/:keywords} : to remove blog entries that contain certain keywords from all the blogs.
+     * <p>
+     * The entries are removed by a background job, see {@link CleanupJobResource} to follow or cancel it.
      *
      * @param keywords the keyword of the blog entry to delete.
-     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the queued cleanup job,
+     * or with status {@code 503 (Service Unavailable)} and a {@code Retry-After} header if too many jobs are already queued.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @DeleteMapping("/blogs/[{keywords}]")
-    public ResponseEntity<Void> cleanBlogs(@PathVariable String[] keywords) {
+    public ResponseEntity<CleanupJobDTO> cleanBlogs(@PathVariable String[] keywords) throws URISyntaxException {
         log.debug("REST request to clean Blog entries with keywords: {}", Arrays.toString(keywords));
-
-        blogService.cleanAllBlogs(keywords);
-        return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, Arrays.toString(keywords))).build();
+        CleanupJobDTO job = cleanupJobService.submit(null, keywords);
+        return ResponseEntity.accepted()
+            .location(new URI("/api/cleanup-jobs/" + job.getId()))
+            .headers(HeaderUtil.createAlert(applicationName, "A cleanup job is started with identifier " + job.getId(), job.getId()))
+            .body(job);
     }
 
     /**
      * {@code DELETE  /blogs/:id/clean/:keywords} : to remove blog entries that contain certain keywords from id of blog provided.
+     * <p>
+     * The entries are removed by a background job, see {@link CleanupJobResource} to follow or cancel it.
      *
+     * @param id the id of the blog to clean.
      * @param keywords the keyword of the blog entry to delete.
-     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the queued cleanup job,
+     * or with status {@code 503 (Service Unavailable)} and a {@code Retry-After} header if too many jobs are already queued.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @DeleteMapping("/blogs/{id}/clean/[{keywords}]")
-    public ResponseEntity<Void> cleanBlogs(@PathVariable Long id, @PathVariable String[] keywords) {
+    public ResponseEntity<CleanupJobDTO> cleanBlogs(@PathVariable Long id, @PathVariable String[] keywords) throws URISyntaxException {
         log.debug("REST request to clean Blog entry with keywords: {}", Arrays.toString(keywords));
+        CleanupJobDTO job = cleanupJobService.submit(id, keywords);
+        return ResponseEntity.accepted()
+            .location(new URI("/api/cleanup-jobs/" + job.getId()))
+            .headers(HeaderUtil.createAlert(applicationName, "A cleanup job is started with identifier " + job.getId(), job.getId()))
+            .body(job);
+    }
+
+    /**
+     * {@code DELETE  /blogs/:keywords?dryRun=true} : preview the removal of the blog entries that contain certain keywords from all the blogs.
+     *
+     * @param keywords the keyword of the blog entry to preview.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the preview, see {@link #streamPreview(Long, String[])}.
+     */
+    @DeleteMapping(value = "/blogs/[{keywords}]", params = "dryRun=true")
+    public ResponseEntity<StreamingResponseBody> previewCleanBlogs(@PathVariable String[] keywords) {
+        log.debug("REST request to preview the cleanup of Blog entries with keywords: {}", Arrays.toString(keywords));
+        return streamPreview(null, keywords);
+    }
 
-        blogService.cleanBlog(id, keywords);
-        return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, Arrays.toString(keywords))).build();
+    /**
+     * {@code DELETE  /blogs/:id/clean/:keywords?dryRun=true} : preview the removal of the blog entries that contain certain keywords from id of blog provided.
+     *
+     * @param id the id of the blog to preview.
+     * @param keywords the keyword of the blog entry to preview.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the preview, see {@link #streamPreview(Long, String[])}.
+     */
+    @DeleteMapping(value = "/blogs/{id}/clean/[{keywords}]", params = "dryRun=true")
+    public ResponseEntity<StreamingResponseBody> previewCleanBlogs(@PathVariable Long id, @PathVariable String[] keywords) {
+        log.debug("REST request to preview the cleanup of Blog {} with keywords: {}", id, Arrays.toString(keywords));
+        return streamPreview(id, keywords);
+    }
+
+    /**
+     * Stream a cleanup preview as newline-delimited JSON: one {@link EntryMatchDTO} line per matching entry,
+     * written as the entries are scanned, then a last {@link CleanupPreviewDTO} line with the statistics.
+     */
+    private ResponseEntity<StreamingResponseBody> streamPreview(Long blogId, String[] keywords) {
+        StreamingResponseBody body = out -> {
+            try {
+                CleanupPreviewDTO preview = blogService.previewClean(blogId, keywords, match -> writeLine(out, match));
+                writeLine(out, preview);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_VALUE)).body(body);
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
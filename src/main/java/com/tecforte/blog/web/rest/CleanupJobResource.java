@@ -0,0 +1,62 @@
+package com.tecforte.blog.web.rest;
+
+import com.tecforte.blog.service.CleanupJobService;
+import com.tecforte.blog.service.dto.CleanupJobDTO;
+import io.github.jhipster.web.util.ResponseUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller to follow and cancel the background blog cleanup jobs.
+ */
+@RestController
+@RequestMapping("/api")
+public class CleanupJobResource {
+
+    private final Logger log = LoggerFactory.getLogger(CleanupJobResource.class);
+
+    private final CleanupJobService cleanupJobService;
+
+    public CleanupJobResource(CleanupJobService cleanupJobService) {
+        this.cleanupJobService = cleanupJobService;
+    }
+
+    /**
+     * {@code GET  /cleanup-jobs} : get the running and recently finished cleanup jobs.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of jobs in body, most recent first.
+     */
+    @GetMapping("/cleanup-jobs")
+    public List<CleanupJobDTO> getAllCleanupJobs() {
+        log.debug("REST request to get all cleanup jobs");
+        return cleanupJobService.findAll();
+    }
+
+    /**
+     * {@code GET  /cleanup-jobs/:id} : get the status and progress of the "id" cleanup job.
+     *
+     * @param id the id of the job.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the job, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/cleanup-jobs/{id}")
+    public ResponseEntity<CleanupJobDTO> getCleanupJob(@PathVariable String id) {
+        log.debug("REST request to get cleanup job : {}", id);
+        return ResponseUtil.wrapOrNotFound(cleanupJobService.findOne(id));
+    }
+
+    /**
+     * {@code DELETE  /cleanup-jobs/:id} : cancel the "id" cleanup job, the entries it already deleted stay deleted.
+     *
+     * @param id the id of the job.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the job, or with status {@code 404 (Not Found)}.
+     */
+    @DeleteMapping("/cleanup-jobs/{id}")
+    public ResponseEntity<CleanupJobDTO> cancelCleanupJob(@PathVariable String id) {
+        log.debug("REST request to cancel cleanup job : {}", id);
+        return ResponseUtil.wrapOrNotFound(cleanupJobService.cancel(id));
+    }
+}
@@ -1,11 +1,14 @@
 package com.tecforte.blog.web.rest;
 
-import com.tecforte.blog.domain.enumeration.Emoji;
 import com.tecforte.blog.service.BlogService;
 import com.tecforte.blog.service.EntryService;
-import com.tecforte.blog.service.dto.BlogDTO;
+import com.tecforte.blog.service.EntryValidationService;
+import com.tecforte.blog.service.dto.BlogMetadataDTO;
+import com.tecforte.blog.service.dto.EntryBatchResultDTO;
 import com.tecforte.blog.service.dto.EntryDTO;
+import com.tecforte.blog.service.dto.EntrySummaryDTO;
 import com.tecforte.blog.web.rest.errors.BadRequestAlertException;
+import com.tecforte.blog.web.rest.util.CursorUtil;
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
@@ -14,7 +17,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -22,6 +27,9 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import javax.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,15 +41,21 @@ import java.util.Optional;
 public class EntryResource {
 
     private static final String ENTITY_NAME = "entry";
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String CONTENT_FIELD = "content";
+    private static final int MAX_BATCH_SIZE = 10000;
+    private static final int INDEX_RETRY_AFTER_SECONDS = 5;
     private final Logger log = LoggerFactory.getLogger(EntryResource.class);
     private final EntryService entryService;
     private final BlogService blogService;
+    private final EntryValidationService entryValidationService;
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
-    public EntryResource(EntryService entryService, BlogService blogService) {
+    public EntryResource(EntryService entryService, BlogService blogService, EntryValidationService entryValidationService) {
         this.entryService = entryService;
         this.blogService = blogService;
+        this.entryValidationService = entryValidationService;
     }
 
     /**
@@ -57,23 +71,7 @@ public class EntryResource {
         if (entryDTO.getId() != null) {
             throw new BadRequestAlertException("A new entry cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        final Optional<Boolean> booleanIsPositive = blogService.findOne(entryDTO.getBlogId()).map(BlogDTO::isPositive);
-        booleanIsPositive.ifPresent(isPositive -> {
-            final Emoji entryDTOEmoji = entryDTO.getEmoji();
-            if (isPositive && (entryDTOEmoji.equals(Emoji.SAD) || entryDTOEmoji.equals(Emoji.ANGRY))) {
-                throw new BadRequestAlertException("Invalid Emoji", ENTITY_NAME, "invalidEmoji");
-            } else if (!isPositive && (entryDTOEmoji.equals(Emoji.LIKE) || entryDTOEmoji.equals(Emoji.HAHA))) {
-                throw new BadRequestAlertException("Invalid Emoji", ENTITY_NAME, "invalidEmoji");
-            } else {
-                final String titleToLowerCase = entryDTO.getTitle().toLowerCase();
-                final String contentToLowerCase = entryDTO.getContent().toLowerCase();
-                if (isPositive && (titleToLowerCase.matches("(sad)|(fear)|(lonely)") || contentToLowerCase.matches("(sad)|(fear)|(lonely)"))) {
-                    throw new BadRequestAlertException("Invalid Content", ENTITY_NAME, "invalidContent");
-                } else if (!isPositive && (titleToLowerCase.matches("(love)|(happy)|(trust)") || contentToLowerCase.matches("(love)|(happy)|(trust)"))) {
-                    throw new BadRequestAlertException("Invalid Content", ENTITY_NAME, "invalidContent");
-                }
-            }
-        });
+        validateEntry(entryDTO);
         EntryDTO result = entryService.save(entryDTO);
 
         return ResponseEntity.created(new URI("/api/entries/" + result.getId()))
@@ -81,6 +79,28 @@ public class EntryResource {
             .body(result);
     }
 
+    /**
+     * {@code POST  /entries/batch} : Create a batch of new entries.
+     * <p>
+     * Each entry is validated on its own, so invalid entries are reported without preventing the valid ones from being created.
+     *
+     * @param entryDTOs the entryDTOs to create, at most {@value #MAX_BATCH_SIZE}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body one result per entry, in the same order,
+     * or with status {@code 400 (Bad Request)} if the batch is empty or too large.
+     */
+    @PostMapping("/entries/batch")
+    public ResponseEntity<List<EntryBatchResultDTO>> createEntries(@RequestBody List<EntryDTO> entryDTOs) {
+        log.debug("REST request to save a batch of {} Entries", entryDTOs.size());
+        if (entryDTOs.isEmpty()) {
+            throw new BadRequestAlertException("A batch cannot be empty", ENTITY_NAME, "batchempty");
+        }
+        if (entryDTOs.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestAlertException("A batch cannot have more than " + MAX_BATCH_SIZE + " entries", ENTITY_NAME, "batchtoolarge");
+        }
+        List<EntryBatchResultDTO> results = entryService.saveAll(entryDTOs);
+        return ResponseEntity.ok().body(results);
+    }
+
     /**
      * {@code PUT  /entries} : Updates an existing entry.
      *
@@ -96,23 +116,7 @@ public class EntryResource {
         if (entryDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        final Optional<Boolean> booleanIsPositive = blogService.findOne(entryDTO.getBlogId()).map(BlogDTO::isPositive);
-        booleanIsPositive.ifPresent(isPositive -> {
-            final Emoji entryDTOEmoji = entryDTO.getEmoji();
-            if (isPositive && (entryDTOEmoji.equals(Emoji.SAD) || entryDTOEmoji.equals(Emoji.ANGRY))) {
-                throw new BadRequestAlertException("Invalid Emoji", ENTITY_NAME, "invalidEmoji");
-            } else if (!isPositive && (entryDTOEmoji.equals(Emoji.LIKE) || entryDTOEmoji.equals(Emoji.HAHA))) {
-                throw new BadRequestAlertException("Invalid Emoji", ENTITY_NAME, "invalidEmoji");
-            } else {
-                final String titleToLowerCase = entryDTO.getTitle().toLowerCase();
-                final String contentToLowerCase = entryDTO.getContent().toLowerCase();
-                if (isPositive && (titleToLowerCase.matches("(sad)|(fear)|(lonely)") || contentToLowerCase.matches("(sad)|(fear)|(lonely)"))) {
-                    throw new BadRequestAlertException("Invalid Content", ENTITY_NAME, "invalidContent");
-                } else if (!isPositive && (titleToLowerCase.matches("(love)|(happy)|(trust)") || contentToLowerCase.matches("(love)|(happy)|(trust)"))) {
-                    throw new BadRequestAlertException("Invalid Content", ENTITY_NAME, "invalidContent");
-                }
-            }
-        });
+        validateEntry(entryDTO);
         EntryDTO result = entryService.save(entryDTO);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, entryDTO.getId().toString()))
@@ -121,18 +125,147 @@ public class EntryResource {
 
     /**
      * {@code GET  /entries} : get all the entries.
+     * <p>
+     * The entries are listed without their content, unless {@code fields=content} is sent.
      *
      * @param pageable the pagination information.
+     * @param fields the optional fields to include, only {@code content} is supported.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of entries in body.
      */
     @GetMapping("/entries")
-    public ResponseEntity<List<EntryDTO>> getAllEntries(Pageable pageable) {
+    public ResponseEntity<List<?>> getAllEntries(Pageable pageable, @RequestParam(required = false) String fields) {
         log.debug("REST request to get a page of Entries");
-        Page<EntryDTO> page = entryService.findAll(pageable);
+        Page<?> page = includesContent(fields) ? entryService.findAll(pageable) : entryService.findAllSummaries(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /entries?cursor=} : get a slice of the entries, newest first, for infinite scroll.
+     * <p>
+     * Send an empty {@code cursor} for the first slice, then the {@code X-Next-Cursor} of the previous one.
+     * Unlike offset pagination, no count query is run unless {@code count=true}, and deep slices cost the same as the first one.
+     * The entries are listed without their content, unless {@code fields=content} is sent.
+     *
+     * @param cursor the {@code X-Next-Cursor} of the previous slice, empty for the first slice.
+     * @param size the size of the slice, defaults to {@value CursorUtil#DEFAULT_PAGE_SIZE} and capped to {@value CursorUtil#MAX_PAGE_SIZE}.
+     * @param count whether to send the total number of entries in the {@code X-Total-Count} header.
+     * @param fields the optional fields to include, only {@code content} is supported.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of entries in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is malformed.
+     */
+    @GetMapping(value = "/entries", params = "cursor")
+    public ResponseEntity<List<?>> getEntriesByCursor(@RequestParam String cursor,
+                                                      @RequestParam(required = false) Integer size,
+                                                      @RequestParam(defaultValue = "false") boolean count,
+                                                      @RequestParam(required = false) String fields) {
+        log.debug("REST request to get a slice of Entries");
+        Long beforeId = CursorUtil.decodeId(cursor, ENTITY_NAME);
+        int pageSize = CursorUtil.pageSize(size);
+        String nextCursor;
+        List<?> content;
+        if (includesContent(fields)) {
+            Slice<EntryDTO> slice = entryService.findSliceBefore(beforeId, pageSize);
+            nextCursor = slice.hasNext() ? CursorUtil.encode(slice.getContent().get(slice.getNumberOfElements() - 1).getId()) : null;
+            content = slice.getContent();
+        } else {
+            Slice<EntrySummaryDTO> slice = entryService.findSummarySliceBefore(beforeId, pageSize);
+            nextCursor = slice.hasNext() ? CursorUtil.encode(slice.getContent().get(slice.getNumberOfElements() - 1).getId()) : null;
+            content = slice.getContent();
+        }
+        HttpHeaders headers = CursorUtil.generateCursorHttpHeaders(nextCursor);
+        if (count) {
+            headers.add(TOTAL_COUNT_HEADER, Long.toString(entryService.count()));
+        }
+        return ResponseEntity.ok().headers(headers).body(content);
+    }
+
+    /**
+     * {@code GET  /entries/containing?words=} : get the entries containing any of the words, newest first.
+     * <p>
+     * Words are separated by any character other than a letter or a digit, and matched as whole words, ignoring case.
+     * The entries are listed without their content.
+     *
+     * @param words the words to look for.
+     * @param pageable the pagination information, its sort is ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of entries in body,
+     * or with status {@code 503 (Service Unavailable)} if the index of the entries is trusted and still being built.
+     */
+    @GetMapping("/entries/containing")
+    public ResponseEntity<List<EntrySummaryDTO>> getEntriesContainingWords(@RequestParam String words, Pageable pageable) {
+        log.debug("REST request to get a page of Entries containing words : {}", words);
+        return entryService.findAllSummariesContainingAnyWord(Collections.singletonList(words), pageable)
+            .map(page -> {
+                HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+                return ResponseEntity.ok().headers(headers).body(page.getContent());
+            })
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Integer.toString(INDEX_RETRY_AFTER_SECONDS))
+                .build());
+    }
+
+    /**
+     * {@code SEARCH  /_search/entries?q=} : search for the entries matching the query, best matches first.
+     * <p>
+     * The entries are listed without their content.
+     *
+     * @param q the words to look for, all of them must be found.
+     * @param pageable the pagination information, its sort is ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of entries in body,
+     * or with status {@code 400 (Bad Request)} if the query is blank.
+     */
+    @GetMapping("/_search/entries")
+    public ResponseEntity<List<EntrySummaryDTO>> searchEntries(@RequestParam String q, Pageable pageable) {
+        log.debug("REST request to search for a page of Entries for query {}", q);
+        if (q.trim().isEmpty()) {
+            throw new BadRequestAlertException("A search query is required", ENTITY_NAME, "querymissing");
+        }
+        Page<EntrySummaryDTO> page = entryService.search(q, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /blogs/:id/entries} : get a slice of the entries of the "id" blog, newest first.
+     * <p>
+     * Omit the {@code cursor} for the first slice, then send the {@code X-Next-Cursor} of the previous one.
+     * The entries are listed without their content.
+     *
+     * @param id the id of the blog.
+     * @param cursor the {@code X-Next-Cursor} of the previous slice, empty for the first slice.
+     * @param size the size of the slice, defaults to {@value CursorUtil#DEFAULT_PAGE_SIZE} and capped to {@value CursorUtil#MAX_PAGE_SIZE}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of entries in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is malformed,
+     * or with status {@code 404 (Not Found)} if the blog does not exist.
+     */
+    @GetMapping("/blogs/{id}/entries")
+    public ResponseEntity<List<EntrySummaryDTO>> getBlogEntries(@PathVariable Long id,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size) {
+        log.debug("REST request to get a slice of Entries of Blog : {}", id);
+        Instant beforeCreatedDate = null;
+        Long beforeId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] key = CursorUtil.decode(cursor, 2, ENTITY_NAME);
+            try {
+                beforeCreatedDate = Instant.parse(key[0]);
+                beforeId = Long.valueOf(key[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "invalidcursor");
+            }
+        }
+        if (!blogService.findMetadata(id).isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        Slice<EntrySummaryDTO> slice = entryService.findSummarySliceByBlog(id, beforeCreatedDate, beforeId, CursorUtil.pageSize(size));
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            EntrySummaryDTO last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = CursorUtil.encode(last.getCreatedDate(), last.getId());
+        }
+        return ResponseEntity.ok().headers(CursorUtil.generateCursorHttpHeaders(nextCursor)).body(slice.getContent());
+    }
+
     /**
      * {@code GET  /entries/:id} : get the "id" entry.
      *
@@ -159,5 +292,26 @@ public class EntryResource {
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString())).build();
     }
 
+    private void validateEntry(EntryDTO entryDTO) {
+        Optional.ofNullable(entryDTO.getBlogId())
+            .flatMap(blogService::findMetadata)
+            .map(BlogMetadataDTO::isPositive)
+            .flatMap(isPositive -> entryValidationService.validate(entryDTO, isPositive))
+            .ifPresent(rule -> {
+                throw new BadRequestAlertException(rule.getDescription(), ENTITY_NAME, rule.getErrorKey());
+            });
+    }
 
+
+    private static boolean includesContent(String fields) {
+        if (fields == null) {
+            return false;
+        }
+        for (String field : fields.split(",")) {
+            if (CONTENT_FIELD.equals(field.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -1,5 +1,6 @@
 package com.tecforte.blog.web.rest;
 
+import com.tecforte.blog.security.jwt.CompactTokenProvider;
 import com.tecforte.blog.security.jwt.JWTFilter;
 import com.tecforte.blog.security.jwt.TokenProvider;
 import com.tecforte.blog.web.rest.vm.LoginVM;
@@ -26,10 +27,14 @@ public class UserJWTController {
 
     private final TokenProvider tokenProvider;
 
+    private final CompactTokenProvider compactTokenProvider;
+
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public UserJWTController(TokenProvider tokenProvider, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    public UserJWTController(TokenProvider tokenProvider, CompactTokenProvider compactTokenProvider,
+                             AuthenticationManagerBuilder authenticationManagerBuilder) {
         this.tokenProvider = tokenProvider;
+        this.compactTokenProvider = compactTokenProvider;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
     }
 
@@ -42,7 +47,8 @@ public class UserJWTController {
         Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
         SecurityContextHolder.getContext().setAuthentication(authentication);
         boolean rememberMe = (loginVM.isRememberMe() == null) ? false : loginVM.isRememberMe();
-        String jwt = tokenProvider.createToken(authentication, rememberMe);
+        String jwt = compactTokenProvider.createToken(authentication, rememberMe)
+            .orElseGet(() -> tokenProvider.createToken(authentication, rememberMe));
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.add(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
         return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
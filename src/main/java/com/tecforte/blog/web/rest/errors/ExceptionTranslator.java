@@ -3,7 +3,9 @@ package com.tecforte.blog.web.rest.errors;
 import io.github.jhipster.web.util.HeaderUtil;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -37,6 +39,11 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
     private static final String PATH_KEY = "path";
     private static final String VIOLATIONS_KEY = "violations";
 
+    /**
+     * How long a client should wait before submitting again a task that was refused.
+     */
+    private static final int RETRY_AFTER_SECONDS = 30;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -129,4 +136,15 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
             .build();
         return create(ex, problem, request);
     }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleTaskRejectedException(TaskRejectedException ex, NativeWebRequest request) {
+        Problem problem = Problem.builder()
+            .withStatus(Status.SERVICE_UNAVAILABLE)
+            .with(MESSAGE_KEY, ErrorConstants.ERR_TASK_REJECTED)
+            .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS));
+        return create(ex, problem, request, headers);
+    }
 }
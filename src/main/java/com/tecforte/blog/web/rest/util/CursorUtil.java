@@ -0,0 +1,112 @@
+package com.tecforte.blog.web.rest.util;
+
+import com.tecforte.blog.web.rest.errors.BadRequestAlertException;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Utility class for keyset (cursor based) pagination.
+ * <p>
+ * A cursor is the sort key of the last element of a page, encoded as an opaque base64url token.
+ * The next page is requested by sending it back, instead of an offset.
+ */
+public final class CursorUtil {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String SEPARATOR = "|";
+
+    private CursorUtil() {
+    }
+
+    /**
+     * Encode the sort key of the last element of a page into an opaque cursor.
+     *
+     * @param parts the sort key values, none of them may contain {@code |}.
+     * @return the cursor.
+     */
+    public static String encode(Object... parts) {
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                key.append(SEPARATOR);
+            }
+            key.append(parts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor produced by {@link #encode(Object...)}.
+     *
+     * @param cursor the cursor sent by the client.
+     * @param expectedParts the number of values of the sort key.
+     * @param entityName the entity being paginated, used in the error.
+     * @return the sort key values.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the cursor is malformed.
+     */
+    public static String[] decode(String cursor, int expectedParts, String entityName) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "invalidcursor");
+        }
+        if (parts.length != expectedParts) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "invalidcursor");
+        }
+        return parts;
+    }
+
+    /**
+     * Decode a cursor made of a single {@code id}.
+     *
+     * @param cursor the cursor sent by the client, {@code null} or empty for the first page.
+     * @param entityName the entity being paginated, used in the error.
+     * @return the id, or {@code null} for the first page.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the cursor is malformed.
+     */
+    public static Long decodeId(String cursor, String entityName) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(decode(cursor, 1, entityName)[0]);
+        } catch (NumberFormatException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "invalidcursor");
+        }
+    }
+
+    /**
+     * Get the size of a page, defaulting to {@link #DEFAULT_PAGE_SIZE} and capped to {@link #MAX_PAGE_SIZE}.
+     *
+     * @param size the requested size, may be {@code null}.
+     * @return the page size to use.
+     */
+    public static int pageSize(Integer size) {
+        if (size == null || size < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Generate the header pointing to the next page.
+     *
+     * @param nextCursor the cursor of the next page, or {@code null} on the last page.
+     * @return the {@link HttpHeaders}, empty on the last page.
+     */
+    public static HttpHeaders generateCursorHttpHeaders(String nextCursor) {
+        HttpHeaders headers = new HttpHeaders();
+        if (nextCursor != null) {
+            headers.add(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return headers;
+    }
+}
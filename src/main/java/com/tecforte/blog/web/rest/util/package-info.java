@@ -0,0 +1,4 @@
+/**
+ * Utility classes used by Spring MVC REST controllers.
+ */
+package com.tecforte.blog.web.rest.util;
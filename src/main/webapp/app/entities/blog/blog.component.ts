@@ -1,5 +1,5 @@
 import { Component, OnInit, OnDestroy } from '@angular/core';
-import { HttpErrorResponse, HttpResponse } from '@angular/common/http';
+import { HttpErrorResponse } from '@angular/common/http';
 import { Subscription } from 'rxjs';
 // eslint-disable-next-line @typescript-eslint/no-unused-vars
 import { filter, map } from 'rxjs/operators';
@@ -26,18 +26,12 @@ export class BlogComponent implements OnInit, OnDestroy {
   ) {}
 
   loadAll() {
-    this.blogService
-      .query()
-      .pipe(
-        filter((res: HttpResponse<IBlog[]>) => res.ok),
-        map((res: HttpResponse<IBlog[]>) => res.body)
-      )
-      .subscribe(
-        (res: IBlog[]) => {
-          this.blogs = res;
-        },
-        (res: HttpErrorResponse) => this.onError(res.message)
-      );
+    this.blogService.queryAll().subscribe(
+      (res: IBlog[]) => {
+        this.blogs = res;
+      },
+      (res: HttpErrorResponse) => this.onError(res.message)
+    );
   }
 
   ngOnInit() {
@@ -1,6 +1,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient, HttpResponse } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { EMPTY, Observable } from 'rxjs';
+import { expand, reduce } from 'rxjs/operators';
 
 import { SERVER_API_URL } from 'app/app.constants';
 import { createRequestOption } from 'app/shared/util/request-util';
@@ -32,6 +33,19 @@ export class BlogService {
     return this.http.get<IBlog[]>(this.resourceUrl, { params: options, observe: 'response' });
   }
 
+  /**
+   * Get all the blogs, following the X-Next-Cursor header from page to page.
+   */
+  queryAll(req?: any): Observable<IBlog[]> {
+    return this.query(req).pipe(
+      expand((res: EntityArrayResponseType) => {
+        const cursor = res.headers.get('X-Next-Cursor');
+        return cursor ? this.query({ ...req, cursor }) : EMPTY;
+      }),
+      reduce((blogs: IBlog[], res: EntityArrayResponseType) => blogs.concat(res.body), [])
+    );
+  }
+
   delete(id: number): Observable<HttpResponse<any>> {
     return this.http.delete<any>(`${this.resourceUrl}/${id}`, { observe: 'response' });
   }
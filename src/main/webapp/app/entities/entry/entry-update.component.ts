@@ -5,7 +5,6 @@ import { HttpResponse, HttpErrorResponse } from '@angular/common/http';
 import { FormBuilder, Validators } from '@angular/forms';
 import { ActivatedRoute } from '@angular/router';
 import { Observable } from 'rxjs';
-import { filter, map } from 'rxjs/operators';
 import { JhiAlertService, JhiDataUtils } from 'ng-jhipster';
 import { IEntry, Entry } from 'app/shared/model/entry.model';
 import { EntryService } from './entry.service';
@@ -43,13 +42,7 @@ export class EntryUpdateComponent implements OnInit {
     this.activatedRoute.data.subscribe(({ entry }) => {
       this.updateForm(entry);
     });
-    this.blogService
-      .query()
-      .pipe(
-        filter((mayBeOk: HttpResponse<IBlog[]>) => mayBeOk.ok),
-        map((response: HttpResponse<IBlog[]>) => response.body)
-      )
-      .subscribe((res: IBlog[]) => (this.blogs = res), (res: HttpErrorResponse) => this.onError(res.message));
+    this.blogService.queryAll().subscribe((res: IBlog[]) => (this.blogs = res), (res: HttpErrorResponse) => this.onError(res.message));
   }
 
   updateForm(entry: IEntry) {
@@ -49,7 +49,8 @@ export class EntryComponent implements OnInit, OnDestroy {
       .query({
         page: this.page,
         size: this.itemsPerPage,
-        sort: this.sort()
+        sort: this.sort(),
+        fields: 'content'
       })
       .subscribe(
         (res: HttpResponse<IEntry[]>) => this.paginateEntries(res.body, res.headers),
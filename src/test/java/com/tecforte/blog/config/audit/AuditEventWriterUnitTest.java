@@ -0,0 +1,109 @@
+package com.tecforte.blog.config.audit;
+
+import com.tecforte.blog.config.ApplicationProperties;
+import com.tecforte.blog.domain.PersistentAuditEvent;
+import com.tecforte.blog.repository.PersistenceAuditEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test class for the {@link AuditEventWriter}.
+ */
+public class AuditEventWriterUnitTest {
+
+    private PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        persistenceAuditEventRepository = mock(PersistenceAuditEventRepository.class);
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getAuditEvents().setQueueCapacity(3);
+        applicationProperties.getAuditEvents().setBatchSize(2);
+        applicationProperties.getAuditEvents().setFlushIntervalMillis(50);
+        applicationProperties.getAuditEvents().setOfferTimeoutMillis(0);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlushWritesInBatches() {
+        AuditEventWriter writer = createWriter();
+        for (int i = 0; i < 3; i++) {
+            assertThat(writer.write(event())).isTrue();
+        }
+        verify(persistenceAuditEventRepository, never()).saveAll(anyList());
+
+        writer.flush();
+
+        ArgumentCaptor<List<PersistentAuditEvent>> batches = ArgumentCaptor.forClass(List.class);
+        verify(persistenceAuditEventRepository, times(2)).saveAll(batches.capture());
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactly(2, 1);
+    }
+
+    @Test
+    public void testEventsAreDroppedWhenTheQueueIsFull() {
+        AuditEventWriter writer = createWriter();
+        for (int i = 0; i < 3; i++) {
+            writer.write(event());
+        }
+
+        assertThat(writer.write(event())).isFalse();
+        assertThat(meterRegistry.get("audit.events.dropped").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("audit.events.queued").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    public void testEventsAreWrittenInTheBackgroundAndOnShutdown() throws Exception {
+        AuditEventWriter writer = createWriter();
+        writer.start();
+
+        writer.write(event());
+        verify(persistenceAuditEventRepository, timeout(5000)).saveAll(anyList());
+
+        writer.write(event());
+        writer.stop();
+        assertThat(meterRegistry.get("audit.events.queued").gauge().value()).isZero();
+    }
+
+    @Test
+    public void testSynchronousWrite() {
+        applicationProperties.getAuditEvents().setAsync(false);
+        AuditEventWriter writer = createWriter();
+        writer.start();
+        PersistentAuditEvent event = event();
+
+        writer.write(event);
+
+        verify(persistenceAuditEventRepository).save(event);
+    }
+
+    private AuditEventWriter createWriter() {
+        return new AuditEventWriter(persistenceAuditEventRepository, mock(PlatformTransactionManager.class),
+            applicationProperties, meterRegistry);
+    }
+
+    private static PersistentAuditEvent event() {
+        PersistentAuditEvent event = new PersistentAuditEvent();
+        event.setPrincipal("test-user");
+        event.setAuditEventType("test-type");
+        return event;
+    }
+}
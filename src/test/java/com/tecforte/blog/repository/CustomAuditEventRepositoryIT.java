@@ -1,9 +1,12 @@
 package com.tecforte.blog.repository;
 
 import com.tecforte.blog.BlogApp;
+import com.tecforte.blog.config.ApplicationProperties;
 import com.tecforte.blog.config.Constants;
 import com.tecforte.blog.config.audit.AuditEventConverter;
+import com.tecforte.blog.config.audit.AuditEventWriter;
 import com.tecforte.blog.domain.PersistentAuditEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +15,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.servlet.http.HttpSession;
@@ -37,6 +41,11 @@ public class CustomAuditEventRepositoryIT {
     @Autowired
     private AuditEventConverter auditEventConverter;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private AuditEventWriter auditEventWriter;
+
     private CustomAuditEventRepository customAuditEventRepository;
 
     private PersistentAuditEvent testUserEvent;
@@ -47,7 +56,11 @@ public class CustomAuditEventRepositoryIT {
 
     @BeforeEach
     public void setup() {
-        customAuditEventRepository = new CustomAuditEventRepository(persistenceAuditEventRepository, auditEventConverter);
+        // Not started: the events are written by flush, within the test transaction
+        auditEventWriter = new AuditEventWriter(persistenceAuditEventRepository, transactionManager,
+            new ApplicationProperties(), new SimpleMeterRegistry());
+        customAuditEventRepository = new CustomAuditEventRepository(persistenceAuditEventRepository, auditEventConverter,
+            auditEventWriter);
         persistenceAuditEventRepository.deleteAll();
         Instant oneHourAgo = Instant.now().minusSeconds(3600);
 
@@ -76,6 +89,7 @@ public class CustomAuditEventRepositoryIT {
         data.put("test-key", "test-value");
         AuditEvent event = new AuditEvent("test-user", "test-type", data);
         customAuditEventRepository.add(event);
+        auditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(1);
         PersistentAuditEvent persistentAuditEvent = persistentAuditEvents.get(0);
@@ -97,6 +111,7 @@ public class CustomAuditEventRepositoryIT {
         data.put("test-key", largeData);
         AuditEvent event = new AuditEvent("test-user", "test-type", data);
         customAuditEventRepository.add(event);
+        auditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(1);
         PersistentAuditEvent persistentAuditEvent = persistentAuditEvents.get(0);
@@ -121,6 +136,7 @@ public class CustomAuditEventRepositoryIT {
         data.put("test-key", details);
         AuditEvent event = new AuditEvent("test-user", "test-type", data);
         customAuditEventRepository.add(event);
+        auditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(1);
         PersistentAuditEvent persistentAuditEvent = persistentAuditEvents.get(0);
@@ -134,6 +150,7 @@ public class CustomAuditEventRepositoryIT {
         data.put("test-key", null);
         AuditEvent event = new AuditEvent("test-user", "test-type", data);
         customAuditEventRepository.add(event);
+        auditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(1);
         PersistentAuditEvent persistentAuditEvent = persistentAuditEvents.get(0);
@@ -146,6 +163,7 @@ public class CustomAuditEventRepositoryIT {
         data.put("test-key", "test-value");
         AuditEvent event = new AuditEvent(Constants.ANONYMOUS_USER, "test-type", data);
         customAuditEventRepository.add(event);
+        auditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(0);
     }
@@ -156,6 +174,7 @@ public class CustomAuditEventRepositoryIT {
         data.put("test-key", "test-value");
         AuditEvent event = new AuditEvent("test-user", "AUTHORIZATION_FAILURE", data);
         customAuditEventRepository.add(event);
+        auditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(0);
     }
@@ -0,0 +1,89 @@
+package com.tecforte.blog.repository;
+
+import com.tecforte.blog.BlogApp;
+import com.tecforte.blog.domain.Blog;
+import com.tecforte.blog.domain.Entry;
+import com.tecforte.blog.domain.enumeration.Emoji;
+import com.tecforte.blog.service.dto.EntrySummaryDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the custom queries of {@link EntryRepository}.
+ */
+@SpringBootTest(classes = BlogApp.class)
+@Transactional
+public class EntryRepositoryIT {
+
+    @Autowired
+    private EntryRepository entryRepository;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Long> createdEntryIds = new ArrayList<>();
+
+    private Blog blog;
+
+    @BeforeEach
+    public void init() {
+        blog = blogRepository.saveAndFlush(new Blog().name("AAAAAAAAAA").positive(true));
+        for (int i = 0; i < 5; i++) {
+            createdEntryIds.add(entryRepository.saveAndFlush(
+                new Entry().title("Entry " + i).emoji(Emoji.LIKE).content("content").blog(blog)).getId());
+        }
+    }
+
+    @Test
+    public void streamAllReadsPastOneChunk() {
+        List<Entry> streamed;
+        try (Stream<Entry> entries = entryRepository.streamAll(2)) {
+            streamed = entries.filter(entry -> createdEntryIds.contains(entry.getId())).collect(Collectors.toList());
+        }
+
+        assertThat(streamed).extracting(Entry::getId).containsExactlyElementsOf(createdEntryIds);
+        assertThat(streamed).extracting(entry -> entry.getBlog().getName()).containsOnly("AAAAAAAAAA");
+        // Detached once the following chunks were loaded
+        assertThat(entityManager.contains(streamed.get(0))).isFalse();
+    }
+
+    @Test
+    public void findSummariesByBlogIdBeforeBreaksTiesOnTheId() {
+        // All the entries share the same creation date, so the slices only follow the ids
+        Instant createdDate = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        entityManager.createQuery("update Entry entry set entry.createdDate = :createdDate where entry.id in :ids")
+            .setParameter("createdDate", createdDate)
+            .setParameter("ids", createdEntryIds)
+            .executeUpdate();
+
+        Slice<EntrySummaryDTO> slice = entryRepository.findSummariesByBlogIdBefore(blog.getId(), createdDate, createdEntryIds.get(4), PageRequest.of(0, 2));
+        assertThat(slice.getContent()).extracting(EntrySummaryDTO::getId).containsExactly(createdEntryIds.get(3), createdEntryIds.get(2));
+        assertThat(slice.hasNext()).isTrue();
+
+        slice = entryRepository.findSummariesByBlogIdBefore(blog.getId(), createdDate, createdEntryIds.get(1), PageRequest.of(0, 2));
+        assertThat(slice.getContent()).extracting(EntrySummaryDTO::getId).containsExactly(createdEntryIds.get(0));
+        assertThat(slice.hasNext()).isFalse();
+
+        // Entries created later come before the keyset
+        slice = entryRepository.findSummariesByBlogIdBefore(blog.getId(), createdDate.plusSeconds(1), 0L, PageRequest.of(0, 10));
+        assertThat(slice.getContent()).hasSize(5);
+    }
+}
@@ -0,0 +1,270 @@
+package com.tecforte.blog.repository;
+
+import com.tecforte.blog.BlogApp;
+import com.tecforte.blog.config.CacheConfiguration;
+import com.tecforte.blog.domain.Blog;
+import com.tecforte.blog.domain.Entry;
+import com.tecforte.blog.domain.User;
+import com.tecforte.blog.domain.enumeration.Emoji;
+import com.tecforte.blog.service.dto.EntrySummaryDTO;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.cache.Caching;
+import javax.persistence.EntityManagerFactory;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the query result caches, with the second level and query caches enabled as in production.
+ * <p>
+ * Each step runs in its own committed transaction, as Hibernate only serves and invalidates cached results
+ * across transactions.
+ * <p>
+ * The caches live in a JCache cache manager of their own: {@link CacheConfiguration} replaces the caches it creates,
+ * which must not close the ones of the other integration tests.
+ */
+@SpringBootTest(classes = {BlogApp.class, QueryCacheIT.QueryCacheConfiguration.class}, properties = {
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class QueryCacheIT {
+
+    private static final String LOGIN = "query-cache-user";
+
+    @TestConfiguration
+    static class QueryCacheConfiguration {
+
+        @Bean(destroyMethod = "close")
+        public javax.cache.CacheManager jCacheCacheManager(ObjectProvider<JCacheManagerCustomizer> customizers) {
+            EhcacheCachingProvider cachingProvider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+            javax.cache.CacheManager cacheManager = cachingProvider.getCacheManager(URI.create(QueryCacheIT.class.getName()),
+                new DefaultConfiguration(QueryCacheIT.class.getClassLoader()));
+            customizers.orderedStream().forEach(customizer -> customizer.customize(cacheManager));
+            return cacheManager;
+        }
+    }
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private EntryRepository entryRepository;
+
+    @Autowired
+    private BlogEmojiStatsRepository blogEmojiStatsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    private final List<Long> createdEntryIds = new ArrayList<>();
+
+    private User user;
+
+    private Blog blog;
+
+    @BeforeEach
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        user = transactionTemplate.execute(status -> {
+            User user = new User();
+            user.setLogin(LOGIN);
+            user.setPassword(RandomStringUtils.random(60));
+            user.setActivated(true);
+            user.setEmail(LOGIN + "@localhost");
+            user.setLangKey("en");
+            return userRepository.saveAndFlush(user);
+        });
+        blog = transactionTemplate.execute(status -> blogRepository.saveAndFlush(new Blog().name("AAAAAAAAAA").positive(true).user(user)));
+        createEntry("Apple pie");
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Remove what the tests have committed.
+     */
+    @AfterEach
+    public void cleanup() {
+        transactionTemplate.execute(status -> {
+            createdEntryIds.forEach(entryRepository::deleteById);
+            blogEmojiStatsRepository.deleteByBlogId(blog.getId());
+            blogRepository.deleteById(blog.getId());
+            userRepository.deleteById(user.getId());
+            return null;
+        });
+        createdEntryIds.clear();
+    }
+
+    private void createEntry(String title) {
+        Entry entry = transactionTemplate.execute(status ->
+            entryRepository.saveAndFlush(new Entry().title(title).emoji(Emoji.LIKE).content("content").blog(blog)));
+        createdEntryIds.add(entry.getId());
+    }
+
+    private List<EntrySummaryDTO> findSummaries() {
+        return transactionTemplate.execute(status ->
+            entryRepository.findSummariesByBlogId(blog.getId(), PageRequest.of(0, 20)).getContent());
+    }
+
+    private List<Blog> findBlogsOfCurrentUser() {
+        return transactionTemplate.execute(status -> blogRepository.findByUserIsCurrentUser());
+    }
+
+    private User findUser() {
+        return transactionTemplate.execute(status -> userRepository.findOneByLogin(LOGIN).get());
+    }
+
+    private long hits() {
+        return hits(EntryRepository.ENTRIES_BY_BLOG_QUERY_CACHE);
+    }
+
+    private long misses() {
+        return misses(EntryRepository.ENTRIES_BY_BLOG_QUERY_CACHE);
+    }
+
+    /**
+     * @return the hits of a query region, which only exists once a query used it.
+     */
+    private long hits(String region) {
+        CacheRegionStatistics regionStatistics = statistics.getQueryRegionStatistics(region);
+        return regionStatistics == null ? 0 : regionStatistics.getHitCount();
+    }
+
+    /**
+     * @return the misses of a query region, which only exists once a query used it.
+     */
+    private long misses(String region) {
+        CacheRegionStatistics regionStatistics = statistics.getQueryRegionStatistics(region);
+        return regionStatistics == null ? 0 : regionStatistics.getMissCount();
+    }
+
+    @Test
+    public void resultsAreServedFromTheCache() {
+        long hits = hits();
+        long misses = misses();
+
+        assertThat(findSummaries()).hasSize(1);
+        assertThat(findSummaries()).hasSize(1);
+
+        assertThat(misses()).isEqualTo(misses + 1);
+        assertThat(hits()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    public void entryWriteEvictsTheCachedResults() {
+        assertThat(findSummaries()).hasSize(1);
+        long misses = misses();
+
+        createEntry("Banana split");
+
+        assertThat(findSummaries()).hasSize(2);
+        assertThat(misses()).isEqualTo(misses + 1);
+    }
+
+    @Test
+    public void blogWriteEvictsTheCachedResults() {
+        assertThat(findSummaries()).extracting(EntrySummaryDTO::getBlogName).containsExactly("AAAAAAAAAA");
+        long misses = misses();
+
+        transactionTemplate.execute(status -> blogRepository.saveAndFlush(blogRepository.findById(blog.getId()).get().name("BBBBBBBBBB")));
+
+        assertThat(findSummaries()).extracting(EntrySummaryDTO::getBlogName).containsExactly("BBBBBBBBBB");
+        assertThat(misses()).isEqualTo(misses + 1);
+    }
+
+    @Test
+    public void counterInsertKeepsTheCachedResults() {
+        assertThat(findSummaries()).hasSize(1);
+        long hits = hits();
+        long misses = misses();
+
+        transactionTemplate.execute(status -> blogEmojiStatsRepository.insertIfAbsent(blog.getId(), Emoji.WOW, 0));
+
+        assertThat(findSummaries()).hasSize(1);
+        assertThat(misses()).isEqualTo(misses);
+        assertThat(hits()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    @WithMockUser(LOGIN)
+    public void blogsByUserResultsAreServedFromTheCache() {
+        long hits = hits(BlogRepository.BLOGS_BY_USER_QUERY_CACHE);
+        long misses = misses(BlogRepository.BLOGS_BY_USER_QUERY_CACHE);
+
+        assertThat(findBlogsOfCurrentUser()).extracting(Blog::getId).containsExactly(blog.getId());
+        assertThat(findBlogsOfCurrentUser()).extracting(Blog::getId).containsExactly(blog.getId());
+
+        assertThat(misses(BlogRepository.BLOGS_BY_USER_QUERY_CACHE)).isEqualTo(misses + 1);
+        assertThat(hits(BlogRepository.BLOGS_BY_USER_QUERY_CACHE)).isEqualTo(hits + 1);
+    }
+
+    @Test
+    @WithMockUser(LOGIN)
+    public void blogWriteEvictsTheCachedBlogsByUser() {
+        assertThat(findBlogsOfCurrentUser()).extracting(Blog::getName).containsExactly("AAAAAAAAAA");
+        long misses = misses(BlogRepository.BLOGS_BY_USER_QUERY_CACHE);
+
+        transactionTemplate.execute(status -> blogRepository.saveAndFlush(blogRepository.findById(blog.getId()).get().name("BBBBBBBBBB")));
+
+        assertThat(findBlogsOfCurrentUser()).extracting(Blog::getName).containsExactly("BBBBBBBBBB");
+        assertThat(misses(BlogRepository.BLOGS_BY_USER_QUERY_CACHE)).isEqualTo(misses + 1);
+    }
+
+    @Test
+    public void userByLoginResultsAreServedFromTheCache() {
+        long hits = hits(UserRepository.USER_BY_LOGIN_QUERY_CACHE);
+        long misses = misses(UserRepository.USER_BY_LOGIN_QUERY_CACHE);
+
+        assertThat(findUser().getId()).isEqualTo(user.getId());
+        assertThat(findUser().getId()).isEqualTo(user.getId());
+
+        assertThat(misses(UserRepository.USER_BY_LOGIN_QUERY_CACHE)).isEqualTo(misses + 1);
+        assertThat(hits(UserRepository.USER_BY_LOGIN_QUERY_CACHE)).isEqualTo(hits + 1);
+    }
+
+    @Test
+    public void userWriteEvictsTheCachedUserByLogin() {
+        assertThat(findUser().getFirstName()).isNull();
+        long misses = misses(UserRepository.USER_BY_LOGIN_QUERY_CACHE);
+
+        transactionTemplate.execute(status -> {
+            User loaded = userRepository.findById(user.getId()).get();
+            loaded.setFirstName("john");
+            return userRepository.saveAndFlush(loaded);
+        });
+
+        assertThat(findUser().getFirstName()).isEqualTo("john");
+        assertThat(misses(UserRepository.USER_BY_LOGIN_QUERY_CACHE)).isEqualTo(misses + 1);
+    }
+}
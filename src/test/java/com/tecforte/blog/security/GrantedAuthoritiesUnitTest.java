@@ -0,0 +1,41 @@
+package com.tecforte.blog.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link GrantedAuthorities} utility class.
+ */
+public class GrantedAuthoritiesUnitTest {
+
+    @Test
+    public void testSameAuthoritiesAreShared() {
+        List<GrantedAuthority> fromToken = GrantedAuthorities.of(AuthoritiesConstants.USER + "," + AuthoritiesConstants.ADMIN);
+        List<GrantedAuthority> fromNames = GrantedAuthorities.of(Arrays.asList(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER));
+
+        assertThat(fromToken).extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+        assertThat(fromNames).isSameAs(fromToken);
+        assertThat(GrantedAuthorities.of(AuthoritiesConstants.USER + "," + AuthoritiesConstants.ADMIN)).isSameAs(fromToken);
+        assertThat(GrantedAuthorities.of(AuthoritiesConstants.USER)).isNotSameAs(fromToken);
+    }
+
+    @Test
+    public void testAuthoritiesAreImmutable() {
+        List<GrantedAuthority> authorities = GrantedAuthorities.of(AuthoritiesConstants.USER);
+
+        assertThatThrownBy(() -> authorities.clear()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testNoAuthorities() {
+        assertThat(GrantedAuthorities.of(Collections.emptyList())).isEmpty();
+    }
+}
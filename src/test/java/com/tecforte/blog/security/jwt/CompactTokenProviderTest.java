@@ -0,0 +1,112 @@
+package com.tecforte.blog.security.jwt;
+
+import com.tecforte.blog.config.ApplicationProperties;
+import com.tecforte.blog.security.AuthoritiesConstants;
+
+import java.util.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.github.jhipster.config.JHipsterProperties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompactTokenProviderTest {
+
+    private static final long ONE_MINUTE = 60000;
+
+    private ApplicationProperties applicationProperties;
+
+    private CompactTokenProvider compactTokenProvider;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt()
+            .setBase64Secret("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8");
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getCompactToken().setEnabled(true);
+        compactTokenProvider = new CompactTokenProvider(jHipsterProperties, applicationProperties);
+        compactTokenProvider.afterPropertiesSet();
+        ReflectionTestUtils.setField(compactTokenProvider, "tokenValidityInMilliseconds", ONE_MINUTE);
+        SecurityContextHolder.getContext().setAuthentication(null);
+    }
+
+    @Test
+    public void testResolveAuthentication() {
+        String token = compactTokenProvider.createToken(createAuthentication(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN), false).get();
+
+        assertThat(CompactTokenProvider.isCompactToken(token)).isTrue();
+        assertThat(compactTokenProvider.resolveAuthentication(token)).hasValueSatisfying(authentication -> {
+            assertThat(authentication.getName()).isEqualTo("test-user");
+            assertThat(authentication.getCredentials()).isEqualTo(token);
+            assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+        });
+    }
+
+    @Test
+    public void testReturnEmptyWhenTokenIsTampered() {
+        String token = compactTokenProvider.createToken(createAuthentication(AuthoritiesConstants.USER), false).get();
+        char[] tampered = token.toCharArray();
+        tampered[12] = tampered[12] == 'A' ? 'B' : 'A';
+
+        assertThat(compactTokenProvider.resolveAuthentication(new String(tampered))).isEmpty();
+        assertThat(compactTokenProvider.resolveAuthentication(token.substring(1))).isEmpty();
+        assertThat(compactTokenProvider.resolveAuthentication("not a token")).isEmpty();
+    }
+
+    @Test
+    public void testReturnEmptyWhenTokenIsExpired() {
+        ReflectionTestUtils.setField(compactTokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
+        String token = compactTokenProvider.createToken(createAuthentication(AuthoritiesConstants.USER), false).get();
+
+        assertThat(compactTokenProvider.resolveAuthentication(token)).isEmpty();
+    }
+
+    @Test
+    public void testNoTokenForUnknownAuthority() {
+        assertThat(compactTokenProvider.createToken(createAuthentication("ROLE_OTHER"), false)).isEmpty();
+    }
+
+    @Test
+    public void testNothingWhenDisabled() {
+        String token = compactTokenProvider.createToken(createAuthentication(AuthoritiesConstants.USER), false).get();
+        applicationProperties.getCompactToken().setEnabled(false);
+
+        assertThat(compactTokenProvider.createToken(createAuthentication(AuthoritiesConstants.USER), false)).isEmpty();
+        assertThat(compactTokenProvider.resolveAuthentication(token)).isEmpty();
+    }
+
+    @Test
+    public void testJWTFilterAcceptsCompactToken() throws Exception {
+        String token = compactTokenProvider.createToken(createAuthentication(AuthoritiesConstants.USER), false).get();
+        JWTFilter jwtFilter = new JWTFilter(new TokenProvider(new JHipsterProperties()), compactTokenProvider);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + token);
+        request.setRequestURI("/api/test");
+
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("test-user");
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString()).isEqualTo(token);
+    }
+
+    private Authentication createAuthentication(String... authorities) {
+        List<GrantedAuthority> grantedAuthorities = new ArrayList<>();
+        for (String authority : authorities) {
+            grantedAuthorities.add(new SimpleGrantedAuthority(authority));
+        }
+        return new UsernamePasswordAuthenticationToken("test-user", "test-password", grantedAuthorities);
+    }
+}
@@ -83,6 +83,45 @@ public class TokenProviderTest {
         assertThat(isTokenValid).isEqualTo(false);
     }
 
+    @Test
+    public void testResolveAuthentication() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Optional<Authentication> authentication = tokenProvider.resolveAuthentication(token);
+
+        assertThat(authentication).hasValueSatisfying(resolved -> {
+            assertThat(resolved.getName()).isEqualTo("anonymous");
+            assertThat(resolved.getCredentials()).isEqualTo(token);
+            assertThat(resolved.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly(AuthoritiesConstants.ANONYMOUS);
+        });
+    }
+
+    @Test
+    public void testVerifiedTokenIsNotVerifiedAgain() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        Authentication first = tokenProvider.resolveAuthentication(token).get();
+
+        // A token verified with the previous key would now be rejected, unless it is not verified again
+        ReflectionTestUtils.setField(tokenProvider, "key", Keys.secretKeyFor(SignatureAlgorithm.HS512));
+        Optional<Authentication> second = tokenProvider.resolveAuthentication(token);
+
+        assertThat(second).hasValueSatisfying(resolved -> {
+            assertThat(resolved).isNotSameAs(first);
+            assertThat(resolved.getName()).isEqualTo("anonymous");
+            assertThat(resolved.getCredentials()).isEqualTo(token);
+        });
+        assertThat(tokenProvider.resolveAuthentication(token.substring(1))).isEmpty();
+    }
+
+    @Test
+    public void testExpiredTokenIsNotCached() {
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.resolveAuthentication(token)).isEmpty();
+        assertThat(tokenProvider.resolveAuthentication(token)).isEmpty();
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
@@ -3,14 +3,18 @@ package com.tecforte.blog.service;
 import com.tecforte.blog.domain.PersistentAuditEvent;
 import com.tecforte.blog.repository.PersistenceAuditEventRepository;
 import com.tecforte.blog.BlogApp;
+import com.tecforte.blog.config.ApplicationProperties;
 import io.github.jhipster.config.JHipsterProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Collections;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -29,6 +33,12 @@ public class AuditEventServiceIT {
     @Autowired
     private JHipsterProperties jHipsterProperties;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private EntityManager em;
+
     private PersistentAuditEvent auditEventOld;
 
     private PersistentAuditEvent auditEventWithinRetention;
@@ -72,4 +82,35 @@ public class AuditEventServiceIT {
         assertThat(persistenceAuditEventRepository.findByPrincipal("test-user-retention")).isNotEmpty();
         assertThat(persistenceAuditEventRepository.findByPrincipal("test-user-new")).isNotEmpty();
     }
+
+    @Test
+    @Transactional
+    public void verifyOldAuditEventsAreDeletedInChunksWithTheirData() {
+        persistenceAuditEventRepository.deleteAll();
+        for (int i = 0; i < 5; i++) {
+            PersistentAuditEvent auditEvent = new PersistentAuditEvent();
+            auditEvent.setAuditEventDate(auditEventOld.getAuditEventDate().minusSeconds(i));
+            auditEvent.setPrincipal("test-user-old");
+            auditEvent.setAuditEventType("test-type");
+            auditEvent.setData(Collections.singletonMap("test-key", "test-value-" + i));
+            persistenceAuditEventRepository.save(auditEvent);
+        }
+        auditEventNew.setData(Collections.singletonMap("test-key", "test-value"));
+        persistenceAuditEventRepository.save(auditEventNew);
+        persistenceAuditEventRepository.flush();
+        em.clear();
+
+        int chunkSize = applicationProperties.getAuditEvents().getPurgeChunkSize();
+        applicationProperties.getAuditEvents().setPurgeChunkSize(2);
+        try {
+            auditEventService.removeOldAuditEvents();
+        } finally {
+            applicationProperties.getAuditEvents().setPurgeChunkSize(chunkSize);
+        }
+
+        assertThat(persistenceAuditEventRepository.findAll()).extracting(PersistentAuditEvent::getPrincipal)
+            .containsExactly("test-user-new");
+        Number dataRows = (Number) em.createNativeQuery("select count(*) from jhi_persistent_audit_evt_data").getSingleResult();
+        assertThat(dataRows.intValue()).isEqualTo(1);
+    }
 }
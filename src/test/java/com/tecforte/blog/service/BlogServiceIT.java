@@ -0,0 +1,104 @@
+package com.tecforte.blog.service;
+
+import com.tecforte.blog.BlogApp;
+import com.tecforte.blog.domain.Blog;
+import com.tecforte.blog.domain.Entry;
+import com.tecforte.blog.domain.User;
+import com.tecforte.blog.domain.enumeration.Emoji;
+import com.tecforte.blog.repository.BlogRepository;
+import com.tecforte.blog.repository.EntryRepository;
+import com.tecforte.blog.repository.UserRepository;
+import com.tecforte.blog.service.dto.BlogDTO;
+import com.tecforte.blog.service.dto.BlogMetadataDTO;
+import com.tecforte.blog.service.dto.UserDTO;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link BlogService}.
+ */
+@SpringBootTest(classes = BlogApp.class)
+@Transactional
+public class BlogServiceIT {
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private EntryRepository entryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    private Blog blog;
+
+    @BeforeEach
+    public void init() {
+        blog = blogRepository.saveAndFlush(new Blog().name("AAAAAAAAAA").positive(true));
+    }
+
+    private Entry createEntry(Blog blog, String title, String content) {
+        return entryRepository.saveAndFlush(new Entry().title(title).emoji(Emoji.LIKE).content(content).blog(blog));
+    }
+
+    @Test
+    public void findMetadataIsEvictedWhenTheBlogIsSaved() {
+        assertThat(blogService.findMetadata(blog.getId()).map(BlogMetadataDTO::isPositive)).contains(true);
+
+        BlogDTO blogDTO = blogService.findOne(blog.getId()).get();
+        blogDTO.setPositive(false);
+        blogService.save(blogDTO);
+        blogRepository.flush();
+
+        assertThat(blogService.findMetadata(blog.getId()).map(BlogMetadataDTO::isPositive)).contains(false);
+    }
+
+    @Test
+    public void findMetadataIsEvictedWhenTheOwnerLoginChanges() {
+        User owner = new User();
+        owner.setLogin("blog-owner");
+        owner.setPassword(RandomStringUtils.random(60));
+        owner.setActivated(true);
+        owner.setEmail("blog-owner@localhost");
+        owner.setLangKey("en");
+        userRepository.saveAndFlush(owner);
+        blogRepository.saveAndFlush(blog.user(owner));
+        assertThat(blogService.findMetadata(blog.getId()).map(BlogMetadataDTO::getUserLogin)).contains("blog-owner");
+
+        UserDTO userDTO = new UserDTO(owner);
+        userDTO.setLogin("renamed-blog-owner");
+        userService.updateUser(userDTO);
+        userRepository.flush();
+
+        assertThat(blogService.findMetadata(blog.getId()).map(BlogMetadataDTO::getUserLogin)).contains("renamed-blog-owner");
+    }
+
+    @Test
+    public void findPageCountsEntriesWithoutLoadingThem() {
+        Blog emptyBlog = blogRepository.saveAndFlush(new Blog().name("BBBBBBBBBB").positive(false));
+        createEntry(blog, "Apple pie", "content");
+        createEntry(blog, "Dinner", "soup");
+
+        List<BlogDTO> blogs = blogService.findPage(blog.getId() - 1, null, null, 2).getContent();
+
+        assertThat(blogs).filteredOn(blogDTO -> blog.getId().equals(blogDTO.getId()))
+            .extracting(BlogDTO::getEntryCount).containsExactly(2);
+        assertThat(blogs).filteredOn(blogDTO -> emptyBlog.getId().equals(blogDTO.getId()))
+            .extracting(BlogDTO::getEntryCount).containsExactly(0);
+        assertThat(blogService.findOne(blog.getId()).map(BlogDTO::getEntryCount)).contains(2);
+    }
+}
@@ -0,0 +1,153 @@
+package com.tecforte.blog.service;
+
+import com.tecforte.blog.BlogApp;
+import com.tecforte.blog.domain.Blog;
+import com.tecforte.blog.domain.enumeration.Emoji;
+import com.tecforte.blog.repository.BlogRepository;
+import com.tecforte.blog.repository.EntryRepository;
+import com.tecforte.blog.service.dto.BlogDTO;
+import com.tecforte.blog.service.dto.BlogStatsDTO;
+import com.tecforte.blog.service.dto.EntryDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link BlogStatsService}.
+ * <p>
+ * The entries are saved by several threads, each in its own transaction: the tests run outside of a transaction,
+ * so that these transactions commit.
+ */
+@SpringBootTest(classes = BlogApp.class)
+public class BlogStatsServiceIT {
+
+    private static final int THREADS = 4;
+
+    private static final int ENTRIES = 12;
+
+    @Autowired
+    private BlogStatsService blogStatsService;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private EntryService entryService;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private EntryRepository entryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> createdEntryIds = new ArrayList<>();
+
+    private BlogDTO blog;
+
+    @BeforeEach
+    public void init() {
+        BlogDTO blogDTO = new BlogDTO();
+        blogDTO.setName("AAAAAAAAAA");
+        blogDTO.setPositive(true);
+        blog = blogService.save(blogDTO);
+    }
+
+    /**
+     * Remove what the tests have committed.
+     */
+    @AfterEach
+    public void cleanup() {
+        createdEntryIds.stream().filter(entryRepository::existsById).forEach(entryRepository::deleteById);
+        createdEntryIds.clear();
+        blogService.delete(blog.getId());
+    }
+
+    private EntryDTO createEntry(String title, Emoji emoji) {
+        EntryDTO entryDTO = new EntryDTO();
+        entryDTO.setTitle(title);
+        entryDTO.setEmoji(emoji);
+        entryDTO.setContent("content");
+        entryDTO.setBlogId(blog.getId());
+        EntryDTO created = entryService.save(entryDTO);
+        synchronized (createdEntryIds) {
+            createdEntryIds.add(created.getId());
+        }
+        return created;
+    }
+
+    private long count(Emoji emoji) {
+        return blogStatsService.findOne(blog.getId()).get().getEmojiCounts().get(emoji);
+    }
+
+    @Test
+    public void concurrentSavesToTheSameBlogKeepTheCountersExact() throws Exception {
+        List<EntryDTO> existing = new ArrayList<>();
+        for (int i = 0; i < ENTRIES; i++) {
+            existing.add(createEntry("Entry " + i, Emoji.LIKE));
+        }
+        List<Callable<EntryDTO>> saves = new ArrayList<>();
+        for (int i = 0; i < ENTRIES; i++) {
+            EntryDTO entryDTO = existing.get(i);
+            String title = "Entry " + (ENTRIES + i);
+            saves.add(() -> createEntry(title, Emoji.HAHA));
+            saves.add(() -> {
+                entryDTO.setEmoji(entryDTO.getId() % 2 == 0 ? Emoji.WOW : Emoji.LIKE);
+                entryDTO.setTitle(entryDTO.getTitle() + " (edited)");
+                return entryService.save(entryDTO);
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<EntryDTO> save : executor.invokeAll(saves)) {
+                save.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        BlogStatsDTO stats = blogStatsService.findOne(blog.getId()).get();
+        assertThat(stats.getEntryCount()).isEqualTo(2 * ENTRIES).isEqualTo(entryRepository.countByBlogId(blog.getId()));
+        for (Emoji emoji : Emoji.values()) {
+            assertThat(count(emoji)).as("%s entries", emoji).isEqualTo(entryRepository.countByBlogIdAndEmoji(blog.getId(), emoji));
+        }
+        assertThat(count(Emoji.HAHA)).isEqualTo(ENTRIES);
+    }
+
+    @Test
+    public void saveKeepsTheEntitiesOfTheTransactionManaged() {
+        EntryDTO entryDTO = createEntry("Apple pie", Emoji.LIKE);
+
+        new TransactionTemplate(transactionManager).execute(status -> {
+            Blog loaded = blogRepository.findById(blog.getId()).get();
+            assertThat(blogStatsService.findOne(blog.getId()).map(BlogStatsDTO::getEntryCount)).contains(1L);
+
+            entryDTO.setEmoji(Emoji.SAD);
+            entryService.save(entryDTO);
+
+            assertThat(entityManager.contains(loaded)).isTrue();
+            assertThat(blogStatsService.findOne(blog.getId()).map(stats -> stats.getEmojiCounts().get(Emoji.SAD))).contains(1L);
+            return null;
+        });
+    }
+}
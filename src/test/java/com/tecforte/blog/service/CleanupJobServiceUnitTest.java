@@ -0,0 +1,115 @@
+package com.tecforte.blog.service;
+
+import com.tecforte.blog.service.dto.CleanupJobDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link CleanupJobService}, running the jobs on demand instead of on the task executor.
+ */
+public class CleanupJobServiceUnitTest {
+
+    private EntryCleanupService entryCleanupService;
+
+    private List<Runnable> queuedTasks;
+
+    private CleanupJobService cleanupJobService;
+
+    @BeforeEach
+    public void setup() {
+        entryCleanupService = mock(EntryCleanupService.class);
+        queuedTasks = new ArrayList<>();
+        cleanupJobService = new CleanupJobService(entryCleanupService, queuedTasks::add);
+    }
+
+    private void runQueuedTasks() {
+        queuedTasks.forEach(Runnable::run);
+        queuedTasks.clear();
+    }
+
+    @Test
+    public void testJobReportsTheProgressOfEachChunk() {
+        when(entryCleanupService.deleteByKeywords(eq(1L), any(), any())).thenAnswer(invocation -> {
+            EntryCleanupService.Monitor monitor = invocation.getArgument(2);
+            monitor.onChunk(new EntryService.ChunkResult(500, 3, 600L, false));
+            monitor.onChunk(new EntryService.ChunkResult(10, 1, 620L, true));
+            return 4L;
+        });
+
+        CleanupJobDTO job = cleanupJobService.submit(1L, new String[]{"spam"});
+        assertThat(job.getStatus()).isEqualTo(CleanupJobDTO.Status.QUEUED);
+
+        runQueuedTasks();
+
+        CleanupJobDTO result = cleanupJobService.findOne(job.getId()).get();
+        assertThat(result.getStatus()).isEqualTo(CleanupJobDTO.Status.COMPLETED);
+        assertThat(result.getScanned()).isEqualTo(510);
+        assertThat(result.getDeleted()).isEqualTo(4);
+        assertThat(result.getStartedDate()).isNotNull();
+        assertThat(result.getFinishedDate()).isNotNull();
+        assertThat(cleanupJobService.findAll()).extracting(CleanupJobDTO::getId).containsExactly(job.getId());
+    }
+
+    @Test
+    public void testCancelledJobDoesNotRun() {
+        CleanupJobDTO job = cleanupJobService.submit(null, new String[]{"spam"});
+        cleanupJobService.cancel(job.getId());
+
+        runQueuedTasks();
+
+        assertThat(cleanupJobService.findOne(job.getId()).get().getStatus()).isEqualTo(CleanupJobDTO.Status.CANCELLED);
+        verifyZeroInteractions(entryCleanupService);
+    }
+
+    @Test
+    public void testJobCancelledWhileRunning() {
+        CleanupJobDTO job = cleanupJobService.submit(null, new String[]{"spam"});
+        when(entryCleanupService.deleteByKeywords(isNull(), any(), any())).thenAnswer(invocation -> {
+            EntryCleanupService.Monitor monitor = invocation.getArgument(2);
+            monitor.onChunk(new EntryService.ChunkResult(500, 2, 500L, false));
+            cleanupJobService.cancel(job.getId());
+            assertThat(monitor.isCancelled()).isTrue();
+            return 2L;
+        });
+
+        runQueuedTasks();
+
+        CleanupJobDTO result = cleanupJobService.findOne(job.getId()).get();
+        assertThat(result.getStatus()).isEqualTo(CleanupJobDTO.Status.CANCELLED);
+        assertThat(result.getDeleted()).isEqualTo(2);
+    }
+
+    @Test
+    public void testFailedJobKeepsItsProgress() {
+        when(entryCleanupService.deleteByKeywords(isNull(), any(), any())).thenAnswer(invocation -> {
+            EntryCleanupService.Monitor monitor = invocation.getArgument(2);
+            monitor.onChunk(new EntryService.ChunkResult(500, 2, 500L, false));
+            throw new IllegalStateException("Connection lost");
+        });
+
+        CleanupJobDTO job = cleanupJobService.submit(null, new String[]{"spam"});
+        runQueuedTasks();
+
+        CleanupJobDTO result = cleanupJobService.findOne(job.getId()).get();
+        assertThat(result.getStatus()).isEqualTo(CleanupJobDTO.Status.FAILED);
+        assertThat(result.getError()).isEqualTo("Connection lost");
+        assertThat(result.getDeleted()).isEqualTo(2);
+    }
+
+    @Test
+    public void testUnknownJob() {
+        assertThat(cleanupJobService.findOne("unknown")).isEmpty();
+        assertThat(cleanupJobService.cancel("unknown")).isEmpty();
+    }
+}
@@ -0,0 +1,119 @@
+package com.tecforte.blog.service;
+
+import com.tecforte.blog.BlogApp;
+import com.tecforte.blog.domain.Blog;
+import com.tecforte.blog.domain.Entry;
+import com.tecforte.blog.domain.enumeration.Emoji;
+import com.tecforte.blog.repository.BlogRepository;
+import com.tecforte.blog.repository.EntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link EntryCleanupService}.
+ * <p>
+ * The entries are scanned by other threads, in their own transactions: the tests run outside of a transaction,
+ * so that these threads see the entries.
+ */
+@SpringBootTest(classes = BlogApp.class)
+public class EntryCleanupServiceIT {
+
+    @Autowired
+    private EntryCleanupService entryCleanupService;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private EntryRepository entryRepository;
+
+    private final List<Blog> createdBlogs = new ArrayList<>();
+
+    private final List<Long> createdEntryIds = new ArrayList<>();
+
+    private Blog blog;
+
+    @BeforeEach
+    public void init() {
+        blog = createBlog("AAAAAAAAAA");
+    }
+
+    /**
+     * Remove what the tests have committed.
+     */
+    @AfterEach
+    public void cleanup() {
+        createdEntryIds.stream().filter(entryRepository::existsById).forEach(entryRepository::deleteById);
+        createdEntryIds.clear();
+        createdBlogs.forEach(createdBlog -> blogService.delete(createdBlog.getId()));
+        createdBlogs.clear();
+    }
+
+    private Blog createBlog(String name) {
+        Blog createdBlog = blogRepository.saveAndFlush(new Blog().name(name).positive(true));
+        createdBlogs.add(createdBlog);
+        return createdBlog;
+    }
+
+    private Entry createEntry(Blog blog, String title, String content) {
+        Entry entry = entryRepository.saveAndFlush(new Entry().title(title).emoji(Emoji.LIKE).content(content).blog(blog));
+        createdEntryIds.add(entry.getId());
+        return entry;
+    }
+
+    @Test
+    public void deleteByKeywordsDeletesEachMatchingEntryOnce() {
+        Entry bothKeywords = createEntry(blog, "Apple pie", "with a BANANA on top");
+        Entry oneKeyword = createEntry(blog, "Lunch", "an apple a day");
+        Entry noKeyword = createEntry(blog, "Dinner", "soup");
+
+        long deleted = entryCleanupService.deleteByKeywords(null, new String[]{"apple", "Banana"}, EntryCleanupService.Monitor.NONE);
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(entryRepository.findById(bothKeywords.getId())).isEmpty();
+        assertThat(entryRepository.findById(oneKeyword.getId())).isEmpty();
+        assertThat(entryRepository.findById(noKeyword.getId())).isPresent();
+    }
+
+    @Test
+    public void deleteByKeywordsMatchesPercentAndUnderscoreLiterally() {
+        Entry percent = createEntry(blog, "100% pure", "content");
+        Entry underscore = createEntry(blog, "snake_case", "content");
+        Entry otherPercent = createEntry(blog, "100 percent", "content");
+        Entry otherUnderscore = createEntry(blog, "snakecase", "snake-case");
+
+        long deleted = entryCleanupService.deleteByKeywords(null, new String[]{"100%", "e_c", " "}, EntryCleanupService.Monitor.NONE);
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(entryRepository.findById(percent.getId())).isEmpty();
+        assertThat(entryRepository.findById(underscore.getId())).isEmpty();
+        assertThat(entryRepository.findById(otherPercent.getId())).isPresent();
+        assertThat(entryRepository.findById(otherUnderscore.getId())).isPresent();
+    }
+
+    @Test
+    public void deleteByKeywordsOfABlogOnlyDeletesEntriesOfThatBlog() {
+        Blog otherBlog = createBlog("BBBBBBBBBB");
+        Entry matching = createEntry(blog, "Apple pie", "content");
+        Entry otherBlogMatching = createEntry(otherBlog, "Apple pie", "content");
+        Entry notMatching = createEntry(blog, "Dinner", "soup");
+
+        long deleted = entryCleanupService.deleteByKeywords(blog.getId(), new String[]{"APPLE", "pie"}, EntryCleanupService.Monitor.NONE);
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(entryRepository.findById(matching.getId())).isEmpty();
+        assertThat(entryRepository.findById(otherBlogMatching.getId())).isPresent();
+        assertThat(entryRepository.findById(notMatching.getId())).isPresent();
+    }
+}
@@ -0,0 +1,196 @@
+package com.tecforte.blog.service;
+
+import com.tecforte.blog.config.ApplicationProperties;
+import com.tecforte.blog.service.dto.CleanupPreviewDTO;
+import com.tecforte.blog.service.dto.EntryMatchDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link EntryCleanupService}, against a fake table of entries with ids 1 to 10000,
+ * every tenth entry matching the keywords.
+ */
+public class EntryCleanupServiceUnitTest {
+
+    private static final long MAX_ID = 10000;
+
+    private static final int CHUNK_SIZE = 100;
+
+    private EntryService entryService;
+
+    private EntryIndexService entryIndexService;
+
+    private ApplicationProperties applicationProperties;
+
+    private EntryCleanupService entryCleanupService;
+
+    private Set<Long> scannedIds;
+
+    @BeforeEach
+    public void setup() {
+        entryService = mock(EntryService.class);
+        entryIndexService = mock(EntryIndexService.class);
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getCleanup().setParallelism(4);
+        applicationProperties.getCleanup().setPartitionsPerThread(2);
+        entryCleanupService = new EntryCleanupService(entryService, entryIndexService, applicationProperties);
+
+        scannedIds = ConcurrentHashMap.newKeySet();
+        when(entryService.findIdRange(isNull())).thenReturn(Optional.of(new long[]{1, MAX_ID}));
+        when(entryService.scanChunk(isNull(), anyLong(), anyLong(), any(), anyBoolean())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(1);
+            long upToId = invocation.getArgument(2);
+            boolean dryRun = invocation.getArgument(4);
+            long lastId = Math.min(afterId + CHUNK_SIZE, upToId);
+            List<EntryMatchDTO> matches = new ArrayList<>();
+            for (long id = afterId + 1; id <= lastId; id++) {
+                assertThat(scannedIds.add(id)).as("id %d scanned once", id).isTrue();
+                if (id % 10 == 0) {
+                    matches.add(new EntryMatchDTO(id, id % 20 == 0 ? 1L : 2L,
+                        id % 100 == 0 ? Arrays.asList("spam", "scam") : Collections.singletonList("spam")));
+                }
+            }
+            int scanned = (int) (lastId - afterId);
+            boolean last = scanned < CHUNK_SIZE || lastId == upToId;
+            return new EntryService.ChunkResult(scanned, matches.size(), dryRun ? 0 : matches.size(), lastId, last,
+                dryRun ? matches : Collections.emptyList());
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        entryCleanupService.shutdown();
+    }
+
+    @Test
+    public void testPartitionsCoverTheIdRange() {
+        long[] bounds = entryCleanupService.partition(1, MAX_ID);
+
+        assertThat(bounds).hasSize(9);
+        assertThat(bounds[0]).isEqualTo(1);
+        assertThat(bounds[8]).isEqualTo(MAX_ID + 1);
+        assertThat(bounds).isSorted();
+        assertThat(entryCleanupService.partition(5, 5)).containsExactly(5, 6);
+    }
+
+    @Test
+    public void testEveryEntryIsScannedOnce() {
+        AtomicLong reported = new AtomicLong();
+
+        long deleted = entryCleanupService.deleteByKeywords(null, new String[]{"spam"}, new EntryCleanupService.Monitor() {
+            @Override
+            public void onChunk(EntryService.ChunkResult chunk) {
+                reported.addAndGet(chunk.getDeleted());
+            }
+        });
+
+        assertThat(deleted).isEqualTo(MAX_ID / 10);
+        assertThat(reported.get()).isEqualTo(deleted);
+        assertThat(scannedIds).hasSize((int) MAX_ID);
+    }
+
+    @Test
+    public void testPreviewStreamsMatchesAndCountsThem() {
+        Set<Long> matchedIds = new HashSet<>();
+
+        CleanupPreviewDTO preview = entryCleanupService.preview(null, new String[]{"SPAM", "scam", "ham"},
+            match -> assertThat(matchedIds.add(match.getId())).isTrue());
+
+        assertThat(matchedIds).hasSize((int) MAX_ID / 10);
+        assertThat(preview.getScanned()).isEqualTo(MAX_ID);
+        assertThat(preview.getMatched()).isEqualTo(MAX_ID / 10);
+        assertThat(preview.getKeywordHits()).containsExactly(entry("spam", MAX_ID / 10), entry("scam", MAX_ID / 100), entry("ham", 0L));
+        assertThat(preview.getBlogTotals()).containsExactly(entry(1L, MAX_ID / 20), entry(2L, MAX_ID / 20));
+        verify(entryService, never()).scanChunk(any(), any(), any(), any(), eq(false));
+    }
+
+    @Test
+    public void testIndexCandidatesAreScannedInsteadOfTheIdRange() {
+        applicationProperties.getEntryIndex().setTrusted(true);
+        entryCleanupService.shutdown();
+        entryCleanupService = new EntryCleanupService(entryService, entryIndexService, applicationProperties);
+        long[] candidates = new long[1200];
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = (i + 1) * 5L;
+        }
+        when(entryIndexService.findContainingAnyKeyword(any())).thenReturn(Optional.of(candidates));
+        when(entryService.scanEntries(isNull(), any(), any(), anyBoolean())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(1);
+            ids.forEach(id -> assertThat(scannedIds.add(id)).as("id %d scanned once", id).isTrue());
+            return new EntryService.ChunkResult(ids.size(), ids.size(), ids.get(ids.size() - 1), false);
+        });
+
+        long deleted = entryCleanupService.deleteByKeywords(null, new String[]{"spam"}, EntryCleanupService.Monitor.NONE);
+
+        assertThat(deleted).isEqualTo(candidates.length);
+        assertThat(scannedIds).hasSize(candidates.length);
+        verify(entryService, times(3)).scanEntries(isNull(), any(), any(), eq(false));
+        verify(entryService, never()).findIdRange(any());
+        verify(entryService, never()).scanChunk(any(), any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    public void testIndexIsNotTrustedByDefault() {
+        when(entryIndexService.findContainingAnyKeyword(any())).thenReturn(Optional.of(new long[]{10}));
+
+        long deleted = entryCleanupService.deleteByKeywords(null, new String[]{"spam"}, EntryCleanupService.Monitor.NONE);
+
+        assertThat(deleted).isEqualTo(MAX_ID / 10);
+        assertThat(scannedIds).hasSize((int) MAX_ID);
+        verifyZeroInteractions(entryIndexService);
+    }
+
+    @Test
+    public void testCancelledCleanupStops() {
+        long deleted = entryCleanupService.deleteByKeywords(null, new String[]{"spam"}, new EntryCleanupService.Monitor() {
+            @Override
+            public boolean isCancelled() {
+                return true;
+            }
+        });
+
+        assertThat(deleted).isZero();
+        assertThat(scannedIds).isEmpty();
+    }
+
+    @Test
+    public void testFailureIsRethrown() {
+        when(entryService.scanChunk(isNull(), anyLong(), anyLong(), any(), anyBoolean())).thenThrow(new IllegalStateException("Connection lost"));
+
+        assertThatThrownBy(() -> entryCleanupService.deleteByKeywords(null, new String[]{"spam"}, EntryCleanupService.Monitor.NONE))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Connection lost");
+    }
+
+    @Test
+    public void testBlankKeywordsDeleteNothing() {
+        assertThat(entryCleanupService.deleteByKeywords(null, new String[]{" "}, EntryCleanupService.Monitor.NONE)).isZero();
+        verifyZeroInteractions(entryService);
+    }
+}
@@ -0,0 +1,109 @@
+package com.tecforte.blog.service;
+
+import com.tecforte.blog.domain.Entry;
+import com.tecforte.blog.repository.EntryRepository;
+import com.tecforte.blog.service.util.KeywordMatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link EntryIndexService}.
+ */
+public class EntryIndexServiceUnitTest {
+
+    private EntryRepository entryRepository;
+
+    private EntryIndexService entryIndexService;
+
+    @BeforeEach
+    public void setup() {
+        entryRepository = mock(EntryRepository.class);
+        entryIndexService = new EntryIndexService(entryRepository, mock(PlatformTransactionManager.class), Runnable::run);
+        when(entryRepository.findChunkAfter(isNull(), isNull(), isNull(), anyInt())).thenReturn(Arrays.asList(
+            entry(1L, "Hello World", "A pineapple, please."),
+            entry(2L, "Goodbye", "Hello again"),
+            entry(3L, "Nothing", null)));
+        when(entryRepository.findChunkAfter(isNull(), any(Long.class), isNull(), anyInt())).thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    public void testNothingIsAnsweredBeforeTheFirstBuild() {
+        assertThat(entryIndexService.isReady()).isFalse();
+        assertThat(entryIndexService.findContainingAnyWord(Collections.singletonList("hello"))).isEmpty();
+        assertThat(entryIndexService.findContainingAnyKeyword(KeywordMatcher.compile(Collections.singletonList("hello")))).isEmpty();
+    }
+
+    @Test
+    public void testFindContainingAnyWord() {
+        entryIndexService.rebuild();
+
+        assertThat(entryIndexService.isReady()).isTrue();
+        assertThat(entryIndexService.findContainingAnyWord(Collections.singletonList("HELLO"))).hasValueSatisfying(ids ->
+            assertThat(ids).containsExactly(2, 1));
+        assertThat(entryIndexService.findContainingAnyWord(Collections.singletonList("nothing, please"))).hasValueSatisfying(ids ->
+            assertThat(ids).containsExactly(3, 1));
+        assertThat(entryIndexService.findContainingAnyWord(Collections.singletonList("apple"))).hasValueSatisfying(ids ->
+            assertThat(ids).isEmpty());
+    }
+
+    @Test
+    public void testFindContainingAnyKeywordMatchesInsideWords() {
+        entryIndexService.rebuild();
+
+        assertThat(entryIndexService.findContainingAnyKeyword(KeywordMatcher.compile(Arrays.asList("APPLE", "bye"))))
+            .hasValueSatisfying(ids -> assertThat(ids).containsExactly(1, 2));
+        assertThat(entryIndexService.findContainingAnyKeyword(KeywordMatcher.compile(Collections.singletonList("hello world"))))
+            .isEmpty();
+    }
+
+    @Test
+    public void testSavedAndDeletedEntriesAreReindexed() {
+        entryIndexService.rebuild();
+
+        entryIndexService.reindexAfterCommit(1L, "Hello World", "A pineapple, please.", "Hi", "Nothing");
+        entryIndexService.removeAfterCommit(Collections.singletonList(entry(3L, "Nothing", null)));
+        entryIndexService.indexAfterCommit(4L, "Hello", null);
+
+        assertThat(entryIndexService.findContainingAnyWord(Collections.singletonList("hello"))).hasValueSatisfying(ids ->
+            assertThat(ids).containsExactly(4, 2));
+        assertThat(entryIndexService.findContainingAnyWord(Collections.singletonList("nothing"))).hasValueSatisfying(ids ->
+            assertThat(ids).containsExactly(1));
+        assertThat(entryIndexService.findContainingAnyWord(Collections.singletonList("world"))).hasValueSatisfying(ids ->
+            assertThat(ids).isEmpty());
+    }
+
+    @Test
+    public void testChangesDuringRebuildAreKept() {
+        when(entryRepository.findChunkAfter(isNull(), isNull(), isNull(), anyInt())).thenAnswer(invocation -> {
+            Entry stale = entry(1L, "Hello World", null);
+            entryIndexService.reindexAfterCommit(1L, "Hello World", null, "Updated", null);
+            entryIndexService.removeAfterCommit(Collections.singletonList(entry(2L, "Goodbye", null)));
+            return Arrays.asList(stale, entry(2L, "Goodbye", null));
+        });
+
+        entryIndexService.rebuild();
+
+        Optional<long[]> hello = entryIndexService.findContainingAnyWord(Arrays.asList("hello", "goodbye"));
+        assertThat(hello).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+        assertThat(entryIndexService.findContainingAnyWord(Collections.singletonList("updated"))).hasValueSatisfying(ids ->
+            assertThat(ids).containsExactly(1));
+    }
+
+    private static Entry entry(Long id, String title, String content) {
+        Entry entry = new Entry().title(title).content(content);
+        entry.setId(id);
+        return entry;
+    }
+}
@@ -0,0 +1,61 @@
+package com.tecforte.blog.service;
+
+import com.tecforte.blog.config.ApplicationProperties;
+import com.tecforte.blog.domain.enumeration.Emoji;
+import com.tecforte.blog.service.dto.EntryDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link EntryValidationService}, with the default rules.
+ */
+public class EntryValidationServiceUnitTest {
+
+    private EntryValidationService entryValidationService;
+
+    @BeforeEach
+    public void setup() {
+        entryValidationService = new EntryValidationService(new ApplicationProperties());
+    }
+
+    private static EntryDTO entry(String title, Emoji emoji, String content) {
+        EntryDTO entryDTO = new EntryDTO();
+        entryDTO.setTitle(title);
+        entryDTO.setEmoji(emoji);
+        entryDTO.setContent(content);
+        return entryDTO;
+    }
+
+    @Test
+    public void testValidEntries() {
+        assertThat(entryValidationService.validate(entry("Holidays", Emoji.LIKE, "Sunny days"), true)).isEmpty();
+        assertThat(entryValidationService.validate(entry("Rainy", Emoji.SAD, "Grey days"), false)).isEmpty();
+    }
+
+    @Test
+    public void testForbiddenEmoji() {
+        assertThat(entryValidationService.validate(entry("Holidays", Emoji.ANGRY, "Sunny days"), true))
+            .contains(EntryRule.POSITIVE_BLOG_EMOJI);
+        assertThat(entryValidationService.validate(entry("Rainy", Emoji.HAHA, "Grey days"), false))
+            .contains(EntryRule.NEGATIVE_BLOG_EMOJI);
+    }
+
+    @Test
+    public void testForbiddenWords() {
+        assertThat(entryValidationService.validate(entry("So LONELY", Emoji.LIKE, "Sunny days"), true))
+            .contains(EntryRule.POSITIVE_BLOG_TITLE);
+        assertThat(entryValidationService.validate(entry("Rainy", Emoji.SAD, "I still Trust you"), false))
+            .contains(EntryRule.NEGATIVE_BLOG_CONTENT);
+        assertThat(entryValidationService.validate(entry("Rainy", Emoji.SAD, "love, at last"), false))
+            .contains(EntryRule.NEGATIVE_BLOG_CONTENT);
+    }
+
+    @Test
+    public void testWordsContainingForbiddenWords() {
+        assertThat(entryValidationService.validate(entry("Fearless", Emoji.LIKE, "The ambassador is here"), true)).isEmpty();
+        assertThat(entryValidationService.validate(entry("Glove", Emoji.SAD, "A four-leaf clover"), false)).isEmpty();
+        assertThat(entryValidationService.validate(entry("Lovely", Emoji.SAD, "Unhappy, distrustful"), false)).isEmpty();
+    }
+}
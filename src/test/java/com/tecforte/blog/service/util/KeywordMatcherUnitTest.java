@@ -0,0 +1,78 @@
+package com.tecforte.blog.service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link KeywordMatcher} utility class.
+ */
+public class KeywordMatcherUnitTest {
+
+    @Test
+    public void testMatchesIgnoringCase() {
+        KeywordMatcher matcher = KeywordMatcher.compile(Arrays.asList("Apple", "banana"));
+        assertThat(matcher.matches("an APPLE a day")).isTrue();
+        assertThat(matcher.matches("BaNaNa split")).isTrue();
+        assertThat(matcher.matches("cherry")).isFalse();
+    }
+
+    @Test
+    public void testMatchesOverlappingKeywords() {
+        KeywordMatcher matcher = KeywordMatcher.compile(Arrays.asList("he", "she", "hers"));
+        assertThat(matcher.matches("ushers")).isTrue();
+        assertThat(matcher.matches("sh")).isFalse();
+        assertThat(KeywordMatcher.compile(Collections.singletonList("abcd")).matches("abcabcd")).isTrue();
+        assertThat(KeywordMatcher.compile(Arrays.asList("abcd", "bcx")).matches("abcx")).isTrue();
+    }
+
+    @Test
+    public void testMatchesAnyDoesNotMatchAcrossTexts() {
+        KeywordMatcher matcher = KeywordMatcher.compile(Collections.singletonList("ab"));
+        assertThat(matcher.matchesAny("xa", "bx")).isFalse();
+        assertThat(matcher.matchesAny("xa", "abx")).isTrue();
+    }
+
+    @Test
+    public void testMatchesWholeWordsOnly() {
+        KeywordMatcher matcher = KeywordMatcher.compile(Arrays.asList("Love", "he", "she"));
+        assertThat(matcher.matchesWord("LOVE")).isTrue();
+        assertThat(matcher.matchesWord("I love it!")).isTrue();
+        assertThat(matcher.matchesWord("glove, lovely, clover")).isFalse();
+        assertThat(matcher.matchesWord("ushers")).isFalse();
+        assertThat(matcher.matchesWord("push, she said")).isTrue();
+        assertThat(matcher.matchesWord("ushe he")).isTrue();
+        assertThat(matcher.matchesWord(null)).isFalse();
+    }
+
+    @Test
+    public void testCollectMatchesFindsEveryKeyword() {
+        KeywordMatcher matcher = KeywordMatcher.compile(Arrays.asList("he", "She", "hers", "his"));
+        BitSet found = new BitSet();
+
+        assertThat(matcher.collectMatches("USHERS", found)).isTrue();
+        assertThat(found.stream().mapToObj(matcher::keyword)).containsExactlyInAnyOrder("he", "she", "hers");
+
+        found.clear();
+        assertThat(matcher.collectMatches("hi", found)).isFalse();
+        assertThat(matcher.collectMatches(null, found)).isFalse();
+        assertThat(found.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testEmptyKeywordsNeverMatch() {
+        KeywordMatcher matcher = KeywordMatcher.compile(Arrays.asList("", null));
+        assertThat(matcher.isEmpty()).isTrue();
+        assertThat(matcher.matches("anything")).isFalse();
+        assertThat(KeywordMatcher.compile(Collections.singletonList("a")).matches(null)).isFalse();
+    }
+
+    @Test
+    public void testDuplicateKeywordsAreFolded() {
+        assertThat(KeywordMatcher.compile(Arrays.asList("Sad", "SAD", "sad")).size()).isEqualTo(1);
+    }
+}
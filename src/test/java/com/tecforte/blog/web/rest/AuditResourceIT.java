@@ -2,6 +2,7 @@ package com.tecforte.blog.web.rest;
 
 import com.tecforte.blog.BlogApp;
 import io.github.jhipster.config.JHipsterProperties;
+import com.tecforte.blog.config.ApplicationProperties;
 import com.tecforte.blog.config.audit.AuditEventConverter;
 import com.tecforte.blog.domain.PersistentAuditEvent;
 import com.tecforte.blog.repository.PersistenceAuditEventRepository;
@@ -19,6 +20,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
@@ -49,6 +51,12 @@ public class AuditResourceIT {
     @Autowired
     private JHipsterProperties jhipsterProperties;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -67,7 +75,8 @@ public class AuditResourceIT {
     public void setup() {
         MockitoAnnotations.initMocks(this);
         AuditEventService auditEventService =
-            new AuditEventService(auditEventRepository, auditEventConverter, jhipsterProperties);
+            new AuditEventService(auditEventRepository, auditEventConverter, jhipsterProperties, applicationProperties,
+                transactionManager);
         AuditResource auditResource = new AuditResource(auditEventService);
         this.restAuditMockMvc = MockMvcBuilders.standaloneSetup(auditResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
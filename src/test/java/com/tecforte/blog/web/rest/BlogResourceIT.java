@@ -2,11 +2,19 @@ package com.tecforte.blog.web.rest;
 
 import com.tecforte.blog.BlogApp;
 import com.tecforte.blog.domain.Blog;
+import com.tecforte.blog.domain.Entry;
+import com.tecforte.blog.domain.enumeration.Emoji;
 import com.tecforte.blog.repository.BlogRepository;
+import com.tecforte.blog.repository.EntryRepository;
 import com.tecforte.blog.service.BlogService;
+import com.tecforte.blog.service.BlogStatsService;
+import com.tecforte.blog.service.CleanupJobService;
+import com.tecforte.blog.service.EntryService;
 import com.tecforte.blog.service.dto.BlogDTO;
+import com.tecforte.blog.service.dto.EntryDTO;
 import com.tecforte.blog.service.mapper.BlogMapper;
 import com.tecforte.blog.web.rest.errors.ExceptionTranslator;
+import com.tecforte.blog.web.rest.util.CursorUtil;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +25,7 @@ import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.Validator;
@@ -45,18 +54,30 @@ public class BlogResourceIT {
     @Autowired
     private BlogRepository blogRepository;
 
+    @Autowired
+    private EntryRepository entryRepository;
+
     @Autowired
     private BlogMapper blogMapper;
 
     @Autowired
     private BlogService blogService;
 
+    @Autowired
+    private BlogStatsService blogStatsService;
+
+    @Autowired
+    private EntryService entryService;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
     @Autowired
     private PageableHandlerMethodArgumentResolver pageableArgumentResolver;
 
+    @Autowired
+    private CleanupJobService cleanupJobService;
+
     @Autowired
     private ExceptionTranslator exceptionTranslator;
 
@@ -73,7 +94,7 @@ public class BlogResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final BlogResource blogResource = new BlogResource(blogService);
+        final BlogResource blogResource = new BlogResource(blogService, blogStatsService, cleanupJobService, jacksonMessageConverter.getObjectMapper());
         this.restBlogMockMvc = MockMvcBuilders.standaloneSetup(blogResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -206,6 +227,77 @@ public class BlogResourceIT {
             .andExpect(jsonPath("$.[*].positive").value(hasItem(DEFAULT_POSITIVE.booleanValue())));
     }
     
+    @Test
+    @Transactional
+    public void getBlogPagesWithCursor() throws Exception {
+        // Initialize the database
+        Blog first = blogRepository.saveAndFlush(createEntity(em));
+        Blog second = blogRepository.saveAndFlush(createEntity(em));
+        blogRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Get the first page of the negative blogs
+        String nextCursor = restBlogMockMvc.perform(get("/api/blogs?size=1&positive=false"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(first.getId().intValue())))
+            .andExpect(header().exists(CursorUtil.NEXT_CURSOR_HEADER))
+            .andReturn().getResponse().getHeader(CursorUtil.NEXT_CURSOR_HEADER);
+
+        // Get the last page
+        restBlogMockMvc.perform(get("/api/blogs?size=1&positive=false&cursor=" + nextCursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(second.getId().intValue())))
+            .andExpect(header().doesNotExist(CursorUtil.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    @Transactional
+    public void getAllBlogsIsLimitedToTheDefaultPageSize() throws Exception {
+        // Initialize the database
+        for (int i = 0; i <= CursorUtil.DEFAULT_PAGE_SIZE; i++) {
+            blogRepository.saveAndFlush(createEntity(em));
+        }
+
+        // Get the first page, without asking for one
+        restBlogMockMvc.perform(get("/api/blogs"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(CursorUtil.DEFAULT_PAGE_SIZE))
+            .andExpect(header().exists(CursorUtil.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    @Transactional
+    public void getBlogPageWithInvalidCursor() throws Exception {
+        restBlogMockMvc.perform(get("/api/blogs?cursor=not-a-cursor"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void previewCleanBlogDeletesNothing() throws Exception {
+        // Initialize the database outside of a transaction, the preview scans it from other threads
+        blogRepository.saveAndFlush(blog);
+        Entry matching = entryRepository.saveAndFlush(new Entry().title("Apple pie").emoji(Emoji.LIKE).content("content").blog(blog));
+        Entry notMatching = entryRepository.saveAndFlush(new Entry().title("Dinner").emoji(Emoji.LIKE).content("soup").blog(blog));
+        try {
+            MvcResult result = restBlogMockMvc.perform(delete("/api/blogs/{id}/clean/[{keywords}]", blog.getId(), "APPLE,pear")
+                .param("dryRun", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            String[] lines = restBlogMockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+            assertThat(lines).hasSize(2);
+            assertThat(lines[0]).contains("\"id\":" + matching.getId(), "\"keywords\":[\"apple\"]");
+            assertThat(lines[1]).contains("\"scanned\":2", "\"matched\":1", "\"keywordHits\":{\"apple\":1,\"pear\":0}");
+            assertThat(entryRepository.findById(matching.getId())).isPresent();
+        } finally {
+            entryRepository.deleteById(matching.getId());
+            entryRepository.deleteById(notMatching.getId());
+            blogRepository.deleteById(blog.getId());
+        }
+    }
+
     @Test
     @Transactional
     public void getBlog() throws Exception {
@@ -221,6 +313,61 @@ public class BlogResourceIT {
             .andExpect(jsonPath("$.positive").value(DEFAULT_POSITIVE.booleanValue()));
     }
 
+    @Test
+    @Transactional
+    public void getBlogStats() throws Exception {
+        // Initialize the database
+        BlogDTO blogDTO = blogService.save(blogMapper.toDto(blog));
+        EntryDTO liked = entryService.save(createEntryDTO(blogDTO.getId(), Emoji.LIKE));
+        entryService.save(createEntryDTO(blogDTO.getId(), Emoji.LIKE));
+        EntryDTO sad = entryService.save(createEntryDTO(blogDTO.getId(), Emoji.SAD));
+
+        // Change the emoji of an entry, then delete another one
+        liked.setEmoji(Emoji.HAHA);
+        entryService.save(liked);
+        entryService.delete(sad.getId());
+
+        restBlogMockMvc.perform(get("/api/blogs/{id}/stats", blogDTO.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$.blogId").value(blogDTO.getId().intValue()))
+            .andExpect(jsonPath("$.entryCount").value(2))
+            .andExpect(jsonPath("$.emojiCounts.LIKE").value(1))
+            .andExpect(jsonPath("$.emojiCounts.HAHA").value(1))
+            .andExpect(jsonPath("$.emojiCounts.SAD").value(0));
+    }
+
+    @Test
+    @Transactional
+    public void getNonExistingBlogStats() throws Exception {
+        restBlogMockMvc.perform(get("/api/blogs/{id}/stats", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void getBlogStatsOfBlogWithoutCounters() throws Exception {
+        // Initialize the database, without the counters created by BlogService
+        blogRepository.saveAndFlush(blog);
+        entryRepository.saveAndFlush(EntryResourceIT.createEntity(em).blog(blog).emoji(Emoji.LIKE));
+        entryService.save(createEntryDTO(blog.getId(), Emoji.LIKE));
+        entryService.save(createEntryDTO(blog.getId(), Emoji.LIKE));
+
+        restBlogMockMvc.perform(get("/api/blogs/{id}/stats", blog.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.entryCount").value(3))
+            .andExpect(jsonPath("$.emojiCounts.LIKE").value(3));
+    }
+
+    private static EntryDTO createEntryDTO(Long blogId, Emoji emoji) {
+        EntryDTO entryDTO = new EntryDTO();
+        entryDTO.setTitle("Title");
+        entryDTO.setContent("Content");
+        entryDTO.setEmoji(emoji);
+        entryDTO.setBlogId(blogId);
+        return entryDTO;
+    }
+
     @Test
     @Transactional
     public void getNonExistingBlog() throws Exception {
@@ -0,0 +1,186 @@
+package com.tecforte.blog.web.rest;
+
+import com.tecforte.blog.BlogApp;
+import com.tecforte.blog.domain.Blog;
+import com.tecforte.blog.domain.Entry;
+import com.tecforte.blog.domain.enumeration.Emoji;
+import com.tecforte.blog.repository.BlogRepository;
+import com.tecforte.blog.repository.EntryRepository;
+import com.tecforte.blog.service.BlogService;
+import com.tecforte.blog.service.BlogStatsService;
+import com.tecforte.blog.service.CleanupJobService;
+import com.tecforte.blog.service.EntryCleanupService;
+import com.tecforte.blog.service.dto.CleanupJobDTO;
+import com.tecforte.blog.web.rest.errors.ExceptionTranslator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static com.tecforte.blog.web.rest.TestUtil.createFormattingConversionService;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link CleanupJobResource} REST controller, with the jobs started through {@link BlogResource}.
+ * <p>
+ * The jobs run on other threads, so the tests run outside of a transaction and remove what they have committed.
+ */
+@SpringBootTest(classes = BlogApp.class)
+public class CleanupJobResourceIT {
+
+    private static final long POLLING_TIMEOUT_MILLIS = 10000;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private EntryRepository entryRepository;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private BlogStatsService blogStatsService;
+
+    @Autowired
+    private CleanupJobService cleanupJobService;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    @Autowired
+    private ExceptionTranslator exceptionTranslator;
+
+    private MockMvc createMockMvc(CleanupJobService cleanupJobService) {
+        ObjectMapper objectMapper = jacksonMessageConverter.getObjectMapper();
+        return MockMvcBuilders.standaloneSetup(
+            new BlogResource(blogService, blogStatsService, cleanupJobService, objectMapper),
+            new CleanupJobResource(cleanupJobService))
+            .setControllerAdvice(exceptionTranslator)
+            .setConversionService(createFormattingConversionService())
+            .setMessageConverters(jacksonMessageConverter).build();
+    }
+
+    /**
+     * Poll the job at the given location until it is over, or until {@link #POLLING_TIMEOUT_MILLIS}.
+     */
+    private void awaitFinished(MockMvc restMockMvc, String location) throws Exception {
+        long deadline = System.currentTimeMillis() + POLLING_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            String job = restMockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            if (JsonPath.read(job, "$.finishedDate") != null) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    public void startCleanupJobAndPollItToCompletion() throws Exception {
+        MockMvc restMockMvc = createMockMvc(cleanupJobService);
+        Blog blog = blogRepository.saveAndFlush(new Blog().name("AAAAAAAAAA").positive(true));
+        Entry matching = entryRepository.saveAndFlush(new Entry().title("Apple pie").emoji(Emoji.LIKE).content("content").blog(blog));
+        Entry notMatching = entryRepository.saveAndFlush(new Entry().title("Dinner").emoji(Emoji.LIKE).content("soup").blog(blog));
+        try {
+            String location = restMockMvc.perform(delete("/api/blogs/{id}/clean/[{keywords}]", blog.getId(), "APPLE"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, startsWith("/api/cleanup-jobs/")))
+                .andExpect(jsonPath("$.blogId").value(blog.getId().intValue()))
+                .andExpect(jsonPath("$.keywords").value(hasItem("APPLE")))
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+            String id = location.substring("/api/cleanup-jobs/".length());
+            awaitFinished(restMockMvc, location);
+
+            restMockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id))
+                .andExpect(jsonPath("$.status").value(CleanupJobDTO.Status.COMPLETED.toString()))
+                .andExpect(jsonPath("$.deleted").value(1))
+                .andExpect(jsonPath("$.startedDate").exists());
+            assertThat(entryRepository.findById(matching.getId())).isNotPresent();
+            assertThat(entryRepository.findById(notMatching.getId())).isPresent();
+
+            restMockMvc.perform(get("/api/cleanup-jobs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(id)));
+        } finally {
+            entryRepository.findById(matching.getId()).ifPresent(entryRepository::delete);
+            entryRepository.deleteById(notMatching.getId());
+            blogService.delete(blog.getId());
+        }
+    }
+
+    @Test
+    public void cancelQueuedCleanupJob() throws Exception {
+        // Hold the job in a queue, so that it is cancelled before it starts
+        List<Runnable> queuedTasks = new ArrayList<>();
+        EntryCleanupService entryCleanupService = mock(EntryCleanupService.class);
+        MockMvc restMockMvc = createMockMvc(new CleanupJobService(entryCleanupService, queuedTasks::add));
+
+        String location = restMockMvc.perform(delete("/api/blogs/[{keywords}]", "spam"))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.status").value(CleanupJobDTO.Status.QUEUED.toString()))
+            .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+        restMockMvc.perform(delete(location))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(location.substring("/api/cleanup-jobs/".length())));
+
+        queuedTasks.forEach(Runnable::run);
+
+        restMockMvc.perform(get(location))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value(CleanupJobDTO.Status.CANCELLED.toString()))
+            .andExpect(jsonPath("$.scanned").value(0))
+            .andExpect(jsonPath("$.finishedDate").exists());
+        verifyZeroInteractions(entryCleanupService);
+    }
+
+    @Test
+    public void getUnknownCleanupJob() throws Exception {
+        MockMvc restMockMvc = createMockMvc(cleanupJobService);
+
+        restMockMvc.perform(get("/api/cleanup-jobs/{id}", "unknown"))
+            .andExpect(status().isNotFound());
+        restMockMvc.perform(delete("/api/cleanup-jobs/{id}", "unknown"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void startCleanupJobWhenTheQueueIsFull() throws Exception {
+        Executor fullExecutor = task -> {
+            throw new TaskRejectedException("Queue full");
+        };
+        MockMvc restMockMvc = createMockMvc(new CleanupJobService(mock(EntryCleanupService.class), fullExecutor));
+
+        restMockMvc.perform(delete("/api/blogs/[{keywords}]", "spam"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+            .andExpect(jsonPath("$.message").value("error.taskRejected"));
+
+        // The refused job is not tracked
+        restMockMvc.perform(get("/api/cleanup-jobs"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+}
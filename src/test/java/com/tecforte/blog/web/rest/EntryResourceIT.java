@@ -1,20 +1,25 @@
 package com.tecforte.blog.web.rest;
 
 import com.tecforte.blog.BlogApp;
+import com.tecforte.blog.domain.Blog;
 import com.tecforte.blog.domain.Entry;
 import com.tecforte.blog.domain.enumeration.Emoji;
 import com.tecforte.blog.repository.EntryRepository;
 import com.tecforte.blog.service.BlogService;
+import com.tecforte.blog.service.EntryRule;
 import com.tecforte.blog.service.EntryService;
+import com.tecforte.blog.service.EntryValidationService;
 import com.tecforte.blog.service.dto.EntryDTO;
 import com.tecforte.blog.service.mapper.EntryMapper;
 import com.tecforte.blog.web.rest.errors.ExceptionTranslator;
+import com.tecforte.blog.web.rest.util.CursorUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
@@ -23,11 +28,17 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.Validator;
 
 import javax.persistence.EntityManager;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static com.tecforte.blog.web.rest.TestUtil.createFormattingConversionService;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 /**
@@ -57,6 +68,9 @@ public class EntryResourceIT {
     @Autowired
     private BlogService blogService;
 
+    @Autowired
+    private EntryValidationService entryValidationService;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -79,7 +93,7 @@ public class EntryResourceIT {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final EntryResource entryResource = new EntryResource(entryService, blogService);
+        final EntryResource entryResource = new EntryResource(entryService, blogService, entryValidationService);
         this.restEntryMockMvc = MockMvcBuilders.standaloneSetup(entryResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -200,6 +214,136 @@ public class EntryResourceIT {
         assertThat(entryList).hasSize(databaseSizeBeforeTest);
     }
 
+    @Test
+    @Transactional
+    public void createEntryWithInvalidEmoji() throws Exception {
+        // Initialize the database
+        Blog blog = BlogResourceIT.createEntity(em).positive(true);
+        em.persist(blog);
+        int databaseSizeBeforeTest = entryRepository.findAll().size();
+
+        // A positive blog does not allow the sad emoji
+        EntryDTO entryDTO = entryMapper.toDto(entry.emoji(Emoji.SAD).blog(blog));
+
+        restEntryMockMvc.perform(post("/api/entries")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(entryDTO)))
+            .andExpect(status().isBadRequest())
+            .andExpect(header().string("X-blogApp-error", EntryRule.POSITIVE_BLOG_EMOJI.getDescription()))
+            .andExpect(jsonPath("$.message").value("error.invalidEmoji"));
+
+        List<Entry> entryList = entryRepository.findAll();
+        assertThat(entryList).hasSize(databaseSizeBeforeTest);
+    }
+
+    @Test
+    @Transactional
+    public void createEntryWithInvalidContent() throws Exception {
+        // Initialize the database
+        Blog blog = BlogResourceIT.createEntity(em).positive(true);
+        em.persist(blog);
+        int databaseSizeBeforeTest = entryRepository.findAll().size();
+
+        // A positive blog does not allow the word "lonely", whatever its case
+        EntryDTO entryDTO = entryMapper.toDto(entry.content("Feeling LONELY today").blog(blog));
+
+        restEntryMockMvc.perform(post("/api/entries")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(entryDTO)))
+            .andExpect(status().isBadRequest())
+            .andExpect(header().string("X-blogApp-error", EntryRule.POSITIVE_BLOG_CONTENT.getDescription()))
+            .andExpect(jsonPath("$.message").value("error.invalidContent"));
+
+        List<Entry> entryList = entryRepository.findAll();
+        assertThat(entryList).hasSize(databaseSizeBeforeTest);
+    }
+
+    @Test
+    @Transactional
+    public void updateEntryWithInvalidContent() throws Exception {
+        // Initialize the database
+        Blog blog = BlogResourceIT.createEntity(em).positive(false);
+        em.persist(blog);
+        entryRepository.saveAndFlush(entry.emoji(Emoji.WOW).blog(blog));
+
+        // A negative blog does not allow the word "happy" in the title
+        Entry updatedEntry = entryRepository.findById(entry.getId()).get();
+        em.detach(updatedEntry);
+        EntryDTO entryDTO = entryMapper.toDto(updatedEntry.title("So happy"));
+
+        restEntryMockMvc.perform(put("/api/entries")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(entryDTO)))
+            .andExpect(status().isBadRequest())
+            .andExpect(header().string("X-blogApp-error", EntryRule.NEGATIVE_BLOG_TITLE.getDescription()))
+            .andExpect(jsonPath("$.message").value("error.invalidContent"));
+
+        assertThat(entryRepository.findById(entry.getId()).get().getTitle()).isEqualTo(DEFAULT_TITLE);
+    }
+
+    @Test
+    @Transactional
+    public void createEntriesBatch() throws Exception {
+        int databaseSizeBeforeCreate = entryRepository.findAll().size();
+
+        EntryDTO valid = entryMapper.toDto(entry);
+        EntryDTO withId = entryMapper.toDto(createUpdatedEntity(em));
+        withId.setId(1L);
+        EntryDTO withoutTitle = entryMapper.toDto(createUpdatedEntity(em));
+        withoutTitle.setTitle(null);
+        EntryDTO withUnknownBlog = entryMapper.toDto(createUpdatedEntity(em));
+        withUnknownBlog.setBlogId(Long.MAX_VALUE);
+
+        // Create the batch, only the valid entry is created
+        restEntryMockMvc.perform(post("/api/entries/batch")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(valid, withId, withoutTitle, withUnknownBlog))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value("CREATED"))
+            .andExpect(jsonPath("$.[0].id").isNumber())
+            .andExpect(jsonPath("$.[1].status").value("REJECTED"))
+            .andExpect(jsonPath("$.[1].errorKey").value("idexists"))
+            .andExpect(jsonPath("$.[2].errorKey").value("invalid"))
+            .andExpect(jsonPath("$.[3].index").value(3))
+            .andExpect(jsonPath("$.[3].errorKey").value("blognotfound"));
+
+        List<Entry> entryList = entryRepository.findAll();
+        assertThat(entryList).hasSize(databaseSizeBeforeCreate + 1);
+        Entry testEntry = entryList.get(entryList.size() - 1);
+        assertThat(testEntry.getTitle()).isEqualTo(DEFAULT_TITLE);
+        assertThat(testEntry.getContent()).isEqualTo(DEFAULT_CONTENT);
+    }
+
+    @Test
+    @Transactional
+    public void createEntriesBatchWithMissingEntry() throws Exception {
+        int databaseSizeBeforeCreate = entryRepository.findAll().size();
+
+        EntryDTO withoutBlog = entryMapper.toDto(entry);
+        withoutBlog.setBlogId(null);
+
+        // Create the batch, the missing entry is rejected on its own
+        restEntryMockMvc.perform(post("/api/entries/batch")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(null, withoutBlog))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value("REJECTED"))
+            .andExpect(jsonPath("$.[0].errorKey").value("invalid"))
+            .andExpect(jsonPath("$.[1].status").value("CREATED"));
+
+        List<Entry> entryList = entryRepository.findAll();
+        assertThat(entryList).hasSize(databaseSizeBeforeCreate + 1);
+    }
+
+    @Test
+    @Transactional
+    public void createEmptyEntriesBatch() throws Exception {
+        restEntryMockMvc.perform(post("/api/entries/batch")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content("[]"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     public void getAllEntries() throws Exception {
@@ -207,7 +351,7 @@ public class EntryResourceIT {
         entryRepository.saveAndFlush(entry);
 
         // Get all the entryList
-        restEntryMockMvc.perform(get("/api/entries?sort=id,desc"))
+        restEntryMockMvc.perform(get("/api/entries?sort=id,desc&fields=content"))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(entry.getId().intValue())))
@@ -216,6 +360,127 @@ public class EntryResourceIT {
             .andExpect(jsonPath("$.[*].content").value(hasItem(DEFAULT_CONTENT.toString())));
     }
 
+    @Test
+    @Transactional
+    public void getAllEntriesWithoutContent() throws Exception {
+        // Initialize the database
+        entryRepository.saveAndFlush(entry);
+
+        // Get all the entryList, content is left out by default
+        restEntryMockMvc.perform(get("/api/entries?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(entry.getId().intValue())))
+            .andExpect(jsonPath("$.[*].title").value(hasItem(DEFAULT_TITLE.toString())))
+            .andExpect(jsonPath("$.[*].emoji").value(hasItem(DEFAULT_EMOJI.toString())))
+            .andExpect(jsonPath("$.[0].content").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    public void getBlogEntriesByCursor() throws Exception {
+        // Initialize the database
+        Blog blog = BlogResourceIT.createEntity(em);
+        em.persist(blog);
+        Entry first = entryRepository.saveAndFlush(createEntity(em).blog(blog));
+        Entry second = entryRepository.saveAndFlush(createEntity(em).blog(blog));
+        Entry third = entryRepository.saveAndFlush(createEntity(em).blog(blog));
+        entryRepository.saveAndFlush(entry);
+
+        // Get the first slice, newest first, then the next one
+        String nextCursor = restEntryMockMvc.perform(get("/api/blogs/{id}/entries?size=2", blog.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(CursorUtil.NEXT_CURSOR_HEADER))
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.[0].id").value(third.getId().intValue()))
+            .andExpect(jsonPath("$.[1].id").value(second.getId().intValue()))
+            .andExpect(jsonPath("$.[0].content").doesNotExist())
+            .andReturn().getResponse().getHeader(CursorUtil.NEXT_CURSOR_HEADER);
+
+        restEntryMockMvc.perform(get("/api/blogs/{id}/entries?size=2&cursor=" + nextCursor, blog.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(CursorUtil.NEXT_CURSOR_HEADER))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(first.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    public void getEntriesOfNonExistingBlog() throws Exception {
+        restEntryMockMvc.perform(get("/api/blogs/{id}/entries", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void getBlogEntriesWithInvalidCursor() throws Exception {
+        Blog blog = BlogResourceIT.createEntity(em);
+        em.persist(blog);
+
+        restEntryMockMvc.perform(get("/api/blogs/{id}/entries?cursor=" + CursorUtil.encode("yesterday", 1), blog.getId()))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void searchEntries() throws Exception {
+        // Initialize the database
+        entryRepository.saveAndFlush(entry);
+        Entry other = createEntity(em).title(UPDATED_TITLE).content(UPDATED_CONTENT);
+        entryRepository.saveAndFlush(other);
+
+        // Search the entries, all the words of the query must be found
+        restEntryMockMvc.perform(get("/api/_search/entries").param("q", DEFAULT_TITLE.toLowerCase()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[0].id").value(entry.getId().intValue()))
+            .andExpect(jsonPath("$.[0].title").value(DEFAULT_TITLE))
+            .andExpect(jsonPath("$.[0].content").doesNotExist());
+        restEntryMockMvc.perform(get("/api/_search/entries").param("q", DEFAULT_TITLE + " " + UPDATED_TITLE))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "0"));
+    }
+
+    @Test
+    @Transactional
+    public void searchEntriesWithBlankQuery() throws Exception {
+        restEntryMockMvc.perform(get("/api/_search/entries").param("q", " "))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void getEntriesContainingWords() throws Exception {
+        // Initialize the database
+        Entry inTitle = entryRepository.saveAndFlush(createEntity(em).title("Zucchini pie"));
+        Entry inContent = entryRepository.saveAndFlush(createEntity(em).content("Grilled ZUCCHINI, then quince"));
+        entryRepository.saveAndFlush(createEntity(em).title("Zucchinis").content("quinces"));
+
+        // Get the entries containing any of the words, as whole words, newest first
+        restEntryMockMvc.perform(get("/api/entries/containing").param("words", "zucchini, quince"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$.[*].id").value(contains(inContent.getId().intValue(), inTitle.getId().intValue())))
+            .andExpect(jsonPath("$.[0].content").doesNotExist());
+    }
+
+    @Test
+    public void getEntriesContainingWordsWhileTheIndexIsBuilt() throws Exception {
+        EntryService buildingEntryService = mock(EntryService.class);
+        when(buildingEntryService.findAllSummariesContainingAnyWord(any(), any())).thenReturn(Optional.empty());
+        EntryResource entryResource = new EntryResource(buildingEntryService, blogService, entryValidationService);
+        MockMvc restBuildingEntryMockMvc = MockMvcBuilders.standaloneSetup(entryResource)
+            .setCustomArgumentResolvers(pageableArgumentResolver)
+            .setControllerAdvice(exceptionTranslator)
+            .setMessageConverters(jacksonMessageConverter).build();
+
+        restBuildingEntryMockMvc.perform(get("/api/entries/containing").param("words", "zucchini"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+    }
+
     @Test
     @Transactional
     public void getEntry() throws Exception {
@@ -232,6 +497,29 @@ public class EntryResourceIT {
             .andExpect(jsonPath("$.content").value(DEFAULT_CONTENT.toString()));
     }
 
+    @Test
+    @Transactional
+    public void getEntriesByCursor() throws Exception {
+        // Initialize the database
+        Entry oldest = entryRepository.saveAndFlush(createEntity(em));
+        Entry newest = entryRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Get the first slice, newest first
+        String nextCursor = restEntryMockMvc.perform(get("/api/entries?cursor=&size=1&count=true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(newest.getId().intValue())))
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(header().exists(CursorUtil.NEXT_CURSOR_HEADER))
+            .andReturn().getResponse().getHeader(CursorUtil.NEXT_CURSOR_HEADER);
+
+        // Get the last slice, without counting
+        restEntryMockMvc.perform(get("/api/entries?size=1&cursor=" + nextCursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(oldest.getId().intValue())))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().doesNotExist(CursorUtil.NEXT_CURSOR_HEADER));
+    }
+
     @Test
     @Transactional
     public void getNonExistingEntry() throws Exception {
@@ -3,6 +3,7 @@ package com.tecforte.blog.web.rest;
 import com.tecforte.blog.BlogApp;
 import com.tecforte.blog.domain.User;
 import com.tecforte.blog.repository.UserRepository;
+import com.tecforte.blog.security.jwt.CompactTokenProvider;
 import com.tecforte.blog.security.jwt.TokenProvider;
 import com.tecforte.blog.web.rest.errors.ExceptionTranslator;
 import com.tecforte.blog.web.rest.vm.LoginVM;
@@ -33,6 +34,9 @@ public class UserJWTControllerIT {
     @Autowired
     private TokenProvider tokenProvider;
 
+    @Autowired
+    private CompactTokenProvider compactTokenProvider;
+
     @Autowired
     private AuthenticationManagerBuilder authenticationManager;
 
@@ -49,7 +53,7 @@ public class UserJWTControllerIT {
 
     @BeforeEach
     public void setup() {
-        UserJWTController userJWTController = new UserJWTController(tokenProvider, authenticationManager);
+        UserJWTController userJWTController = new UserJWTController(tokenProvider, compactTokenProvider, authenticationManager);
         this.mockMvc = MockMvcBuilders.standaloneSetup(userJWTController)
             .setControllerAdvice(exceptionTranslator)
             .build();
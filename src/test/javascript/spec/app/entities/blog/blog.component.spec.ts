@@ -1,6 +1,5 @@
 import { ComponentFixture, TestBed } from '@angular/core/testing';
 import { of } from 'rxjs';
-import { HttpHeaders, HttpResponse } from '@angular/common/http';
 
 import { BlogTestModule } from '../../../test.module';
 import { BlogComponent } from 'app/entities/blog/blog.component';
@@ -29,21 +28,13 @@ describe('Component Tests', () => {
 
     it('Should call load all on init', () => {
       // GIVEN
-      const headers = new HttpHeaders().append('link', 'link;link');
-      spyOn(service, 'query').and.returnValue(
-        of(
-          new HttpResponse({
-            body: [new Blog(123)],
-            headers
-          })
-        )
-      );
+      spyOn(service, 'queryAll').and.returnValue(of([new Blog(123)]));
 
       // WHEN
       comp.ngOnInit();
 
       // THEN
-      expect(service.query).toHaveBeenCalled();
+      expect(service.queryAll).toHaveBeenCalled();
       expect(comp.blogs[0]).toEqual(jasmine.objectContaining({ id: 123 }));
     });
   });
@@ -94,7 +94,16 @@ describe('Service Tests', () => {
         expect(expectedResult).toContainEqual(expected);
       });
 
-      it('should delete a Blog', () => {
+      it('should return all the Blogs, page after page', () => {
+        service.queryAll().subscribe(body => (expectedResult = body));
+        const firstPage = httpMock.expectOne(req => req.method === 'GET' && !req.params.has('cursor'));
+        firstPage.flush([new Blog(1)], { headers: { 'X-Next-Cursor': 'next' } });
+        const secondPage = httpMock.expectOne(req => req.method === 'GET' && req.params.get('cursor') === 'next');
+        secondPage.flush([new Blog(2)]);
+        expect(expectedResult).toEqual([new Blog(1), new Blog(2)]);
+      });
+
+            it('should delete a Blog', () => {
         service.delete(123).subscribe(resp => (expectedResult = resp.ok));
 
         const req = httpMock.expectOne({ method: 'DELETE' });